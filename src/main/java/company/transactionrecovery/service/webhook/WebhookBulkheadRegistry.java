@@ -0,0 +1,285 @@
+package com.company.transactionrecovery.domain.service.webhook;
+
+import com.company.transactionrecovery.infrastructure.http.WebhookClient.WebhookResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Per-endpoint bulkheads for webhook delivery.
+ * Each webhook configuration gets its own in-flight limit and overflow queue,
+ * so a slow or failing subscriber can only exhaust its own capacity.
+ * Limits adapt with an AIMD policy: they grow additively while responses are
+ * fast and successful, and are cut multiplicatively on errors or slow responses.
+ * Bulkheads are dropped when their webhook is deleted, and bulkheads with
+ * nothing in flight or queued are expired once idle for idle-expiry-ms, so
+ * temporary configurations of unregistered URLs do not accumulate.
+ */
+@Component
+public class WebhookBulkheadRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookBulkheadRegistry.class);
+
+    @Value("${webhook.bulkhead.initial-limit:10}")
+    private int initialLimit;
+
+    @Value("${webhook.bulkhead.min-limit:1}")
+    private int minLimit;
+
+    @Value("${webhook.bulkhead.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${webhook.bulkhead.max-queue-size:1000}")
+    private int maxQueueSize;
+
+    @Value("${webhook.bulkhead.latency-threshold-ms:2000}")
+    private long latencyThresholdMs;
+
+    @Value("${webhook.bulkhead.backoff-ratio:0.5}")
+    private double backoffRatio;
+
+    @Value("${webhook.bulkhead.idle-expiry-ms:600000}")
+    private long idleExpiryMs;
+
+    private final Map<UUID, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * Executes a webhook request within the bulkhead of its endpoint.
+     * If the endpoint is at its current limit the request is queued; if the
+     * queue is full the returned stage fails with a RejectedExecutionException.
+     *
+     * @param webhookId The webhook configuration ID
+     * @param request Supplier that starts the request
+     * @return CompletableFuture completed with the outcome of the request
+     */
+    public CompletableFuture<WebhookResponse> execute(
+            UUID webhookId, Supplier<CompletableFuture<WebhookResponse>> request) {
+
+        CompletableFuture<WebhookResponse> result = new CompletableFuture<>();
+        AtomicReference<Runnable> acquired = new AtomicReference<>();
+
+        try {
+            // Acquire under the map entry's lock, so expireIdle cannot drop the bulkhead in between
+            bulkheads.compute(webhookId, (id, existing) -> {
+                Bulkhead bulkhead = existing != null ? existing : new Bulkhead(id);
+                Runnable call = () -> start(bulkhead, request, result);
+                if (bulkhead.tryAcquireOrEnqueue(call)) {
+                    acquired.set(call);
+                }
+                return bulkhead;
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn(e.getMessage());
+            result.completeExceptionally(e);
+        }
+
+        // Started outside the map entry's lock
+        Runnable call = acquired.get();
+        if (call != null) {
+            call.run();
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the current limit, in-flight count and queue depth of every bulkhead.
+     *
+     * @return List of bulkhead snapshots, ordered by queue depth
+     */
+    public List<Map<String, Object>> getBulkheadSnapshots() {
+        List<Map<String, Object>> snapshots = new ArrayList<>();
+
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            snapshots.add(bulkhead.snapshot());
+        }
+
+        snapshots.sort(Comparator.comparing(
+                (Map<String, Object> snapshot) -> (Integer) snapshot.get("queue_depth")).reversed());
+
+        return snapshots;
+    }
+
+    /**
+     * Drops the bulkhead of a webhook, e.g. after the webhook is deleted.
+     *
+     * @param webhookId The webhook configuration ID
+     */
+    public void remove(UUID webhookId) {
+        bulkheads.remove(webhookId);
+    }
+
+    /**
+     * Drops the bulkheads that have been idle for longer than the idle expiry.
+     * A bulkhead is only dropped while nothing is in flight or queued on it; a
+     * webhook that is used again simply gets a new bulkhead at the initial limit.
+     * Each check runs under the map entry's lock, like the acquire in execute,
+     * so a request can never be admitted by a bulkhead that is being dropped.
+     */
+    @Scheduled(fixedDelayString = "${webhook.bulkhead.expiry-interval-ms:60000}")
+    public void expireIdle() {
+        long idleSince = System.currentTimeMillis() - idleExpiryMs;
+        AtomicInteger expiredCount = new AtomicInteger();
+
+        for (UUID webhookId : bulkheads.keySet()) {
+            bulkheads.computeIfPresent(webhookId, (id, bulkhead) -> {
+                if (bulkhead.isIdleSince(idleSince)) {
+                    expiredCount.incrementAndGet();
+                    return null;
+                }
+                return bulkhead;
+            });
+        }
+
+        int expired = expiredCount.get();
+        if (expired > 0) {
+            logger.debug("Expired {} idle webhook bulkheads", expired);
+        }
+    }
+
+    /**
+     * Starts a request and releases the permit once it completes.
+     */
+    private void start(Bulkhead bulkhead,
+                       Supplier<CompletableFuture<WebhookResponse>> request,
+                       CompletableFuture<WebhookResponse> result) {
+
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<WebhookResponse> call;
+
+        try {
+            call = request.get();
+        } catch (Exception e) {
+            call = new CompletableFuture<>();
+            call.completeExceptionally(e);
+        }
+
+        call.whenComplete((response, error) -> {
+            long durationMs = response != null
+                    ? response.getDurationMs()
+                    : System.currentTimeMillis() - startTime;
+
+            List<Runnable> next = bulkhead.release(error == null, durationMs);
+            next.forEach(Runnable::run);
+
+            if (error != null) {
+                result.completeExceptionally(WebhookDispatcher.unwrap(error));
+            } else {
+                result.complete(response);
+            }
+        });
+    }
+
+    /**
+     * Bulkhead state for a single webhook endpoint.
+     * All state is guarded by the instance monitor; queued calls are always
+     * run outside of it.
+     */
+    private class Bulkhead {
+
+        private final UUID webhookId;
+        private final Deque<Runnable> queue = new ArrayDeque<>();
+        private double limit = initialLimit;
+        private int inFlight;
+        private long rejectedCount;
+        private long lastDecreaseAt;
+        private long lastUsedAt = System.currentTimeMillis();
+
+        Bulkhead(UUID webhookId) {
+            this.webhookId = webhookId;
+        }
+
+        synchronized boolean isIdleSince(long time) {
+            return inFlight == 0 && queue.isEmpty() && lastUsedAt < time;
+        }
+
+        /**
+         * Takes a permit if one is available, otherwise queues the call.
+         *
+         * @return true if the caller should run the call now
+         */
+        synchronized boolean tryAcquireOrEnqueue(Runnable call) {
+            lastUsedAt = System.currentTimeMillis();
+
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+
+            if (queue.size() >= maxQueueSize) {
+                rejectedCount++;
+                throw new RejectedExecutionException(
+                        "Bulkhead queue full for webhook " + webhookId + " (" + queue.size() + " queued)");
+            }
+
+            queue.addLast(call);
+            return false;
+        }
+
+        /**
+         * Releases a permit, adapts the limit and takes as many queued calls
+         * as the new limit allows.
+         *
+         * @return Queued calls that now hold a permit
+         */
+        synchronized List<Runnable> release(boolean success, long durationMs) {
+            inFlight--;
+            lastUsedAt = System.currentTimeMillis();
+            adaptLimit(success, durationMs);
+
+            List<Runnable> next = new ArrayList<>();
+            while (inFlight < (int) limit && !queue.isEmpty()) {
+                inFlight++;
+                next.add(queue.pollFirst());
+            }
+            return next;
+        }
+
+        private void adaptLimit(boolean success, long durationMs) {
+            if (success && durationMs <= latencyThresholdMs) {
+                // Additive increase: roughly +1 per window of 'limit' good responses
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+                return;
+            }
+
+            // Multiplicative decrease, at most once per latency window so that a
+            // burst of failures from the same window only backs off once
+            long now = System.currentTimeMillis();
+            if (now - lastDecreaseAt >= latencyThresholdMs) {
+                double previous = limit;
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseAt = now;
+
+                logger.debug("Reduced concurrency limit for webhook {} from {} to {} (success: {}, duration: {}ms)",
+                        webhookId, (int) previous, (int) limit, success, durationMs);
+            }
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("webhook_id", webhookId);
+            snapshot.put("limit", (int) limit);
+            snapshot.put("in_flight", inFlight);
+            snapshot.put("queue_depth", queue.size());
+            snapshot.put("rejected", rejectedCount);
+            return snapshot;
+        }
+    }
+}
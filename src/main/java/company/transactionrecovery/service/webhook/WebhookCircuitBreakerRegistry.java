@@ -0,0 +1,295 @@
+package com.company.transactionrecovery.domain.service.webhook;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breakers for webhook endpoints, keyed by webhook ID.
+ * A breaker opens after a run of consecutive delivery failures. While it is open,
+ * deliveries are rescheduled for the next probe time without any network call.
+ * Once the open period has elapsed, a single probe delivery is let through
+ * (half-open), and its outcome either closes the breaker or opens it again.
+ * Breakers are only kept for registered webhooks and are dropped, together
+ * with their meters, when the webhook is deleted.
+ */
+@Component
+public class WebhookCircuitBreakerRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookCircuitBreakerRegistry.class);
+
+    /**
+     * Circuit breaker states.
+     */
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${webhook.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${webhook.circuit-breaker.open-duration-seconds:60}")
+    private int openDurationSeconds;
+
+    @Value("${webhook.circuit-breaker.half-open-retry-seconds:10}")
+    private int halfOpenRetrySeconds;
+
+    @Value("${webhook.circuit-breaker.probe-timeout-seconds:30}")
+    private int probeTimeoutSeconds;
+
+    private final Map<UUID, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WebhookCircuitBreakerRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Checks whether a delivery to the given webhook may be sent now.
+     * In the half-open state only one probe delivery is allowed at a time.
+     *
+     * @param webhookId The webhook configuration ID
+     * @return true if the delivery may be sent, false if it should be rescheduled
+     */
+    public boolean tryAcquire(UUID webhookId) {
+        return getBreaker(webhookId).tryAcquire();
+    }
+
+    /**
+     * Gets the time at which a short-circuited delivery should be retried,
+     * aligned with the breaker's next probe.
+     *
+     * @param webhookId The webhook configuration ID
+     * @return The next probe time
+     */
+    public LocalDateTime getNextProbeAt(UUID webhookId) {
+        CircuitBreaker breaker = breakers.get(webhookId);
+        return toLocalDateTime(breaker != null ? breaker.nextProbeAt() : System.currentTimeMillis());
+    }
+
+    /**
+     * Records a successful delivery, closing a half-open breaker.
+     * Outcomes of deliveries that complete after their webhook was removed are
+     * ignored, so they do not bring the breaker and its meters back.
+     *
+     * @param webhookId The webhook configuration ID
+     */
+    public void recordSuccess(UUID webhookId) {
+        CircuitBreaker breaker = breakers.get(webhookId);
+        if (breaker != null) {
+            breaker.onSuccess();
+        }
+    }
+
+    /**
+     * Records a failed delivery, opening the breaker once the failure threshold is reached.
+     * Like recordSuccess, ignored once the webhook's breaker has been removed.
+     *
+     * @param webhookId The webhook configuration ID
+     */
+    public void recordFailure(UUID webhookId) {
+        CircuitBreaker breaker = breakers.get(webhookId);
+        if (breaker != null) {
+            breaker.onFailure();
+        }
+    }
+
+    /**
+     * Releases a delivery let through by tryAcquire that ended without telling
+     * anything about the endpoint, e.g. rejected by the bulkhead or failed
+     * before the request was sent. A half-open breaker may then probe again
+     * right away instead of waiting for the probe timeout.
+     *
+     * @param webhookId The webhook configuration ID
+     */
+    public void release(UUID webhookId) {
+        CircuitBreaker breaker = breakers.get(webhookId);
+        if (breaker != null) {
+            breaker.release();
+        }
+    }
+
+    /**
+     * Drops the breaker of a webhook and its meters, e.g. after the webhook is deleted.
+     *
+     * @param webhookId The webhook configuration ID
+     */
+    public void remove(UUID webhookId) {
+        CircuitBreaker breaker = breakers.remove(webhookId);
+        if (breaker == null) {
+            return;
+        }
+
+        meterRegistry.remove(breaker.stateGauge);
+        meterRegistry.find("webhook.circuit.transitions")
+                .tag("webhook_id", webhookId.toString())
+                .meters()
+                .forEach(meterRegistry::remove);
+    }
+
+    /**
+     * Gets the current state of a webhook's breaker.
+     *
+     * @param webhookId The webhook configuration ID
+     * @return The breaker state
+     */
+    public State getState(UUID webhookId) {
+        CircuitBreaker breaker = breakers.get(webhookId);
+        return breaker != null ? breaker.state : State.CLOSED;
+    }
+
+    /**
+     * Gets the state of every breaker that is not closed.
+     *
+     * @return List of breaker snapshots
+     */
+    public List<Map<String, Object>> getOpenCircuitSnapshots() {
+        List<Map<String, Object>> snapshots = new ArrayList<>();
+
+        for (CircuitBreaker breaker : breakers.values()) {
+            if (breaker.state != State.CLOSED) {
+                snapshots.add(breaker.snapshot());
+            }
+        }
+
+        return snapshots;
+    }
+
+    /**
+     * Gets the state of every known breaker.
+     *
+     * @return List of breaker snapshots
+     */
+    public List<Map<String, Object>> getCircuitSnapshots() {
+        List<Map<String, Object>> snapshots = new ArrayList<>();
+        breakers.values().forEach(breaker -> snapshots.add(breaker.snapshot()));
+        return snapshots;
+    }
+
+    private CircuitBreaker getBreaker(UUID webhookId) {
+        return breakers.computeIfAbsent(webhookId, CircuitBreaker::new);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Breaker state for a single webhook endpoint, guarded by the instance monitor.
+     */
+    private class CircuitBreaker {
+
+        private final UUID webhookId;
+        private final Gauge stateGauge;
+        private volatile State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openUntil;
+        private long probeStartedAt;
+        private boolean probeInFlight;
+
+        CircuitBreaker(UUID webhookId) {
+            this.webhookId = webhookId;
+            this.stateGauge = Gauge.builder("webhook.circuit.state", this, b -> b.state.ordinal())
+                    .description("Circuit breaker state (0 = closed, 1 = half-open, 2 = open)")
+                    .tag("webhook_id", webhookId.toString())
+                    .register(meterRegistry);
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.currentTimeMillis();
+
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (now < openUntil) {
+                        return false;
+                    }
+                    transitionTo(State.HALF_OPEN);
+                    return takeProbe(now);
+                default:
+                    // A probe that never reported back is considered lost
+                    if (probeInFlight && now - probeStartedAt < probeTimeoutSeconds * 1000L) {
+                        return false;
+                    }
+                    return takeProbe(now);
+            }
+        }
+
+        synchronized long nextProbeAt() {
+            if (state == State.OPEN) {
+                return openUntil;
+            }
+            return System.currentTimeMillis() + halfOpenRetrySeconds * 1000L;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            probeInFlight = false;
+
+            if (state != State.CLOSED) {
+                transitionTo(State.CLOSED);
+            }
+        }
+
+        synchronized void onFailure() {
+            consecutiveFailures++;
+            probeInFlight = false;
+
+            if (state == State.HALF_OPEN
+                    || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                openUntil = System.currentTimeMillis() + openDurationSeconds * 1000L;
+                transitionTo(State.OPEN);
+            }
+        }
+
+        synchronized void release() {
+            probeInFlight = false;
+        }
+
+        private boolean takeProbe(long now) {
+            probeInFlight = true;
+            probeStartedAt = now;
+            return true;
+        }
+
+        private void transitionTo(State newState) {
+            logger.info("Circuit breaker for webhook {} changed from {} to {} after {} consecutive failures",
+                    webhookId, state, newState, consecutiveFailures);
+
+            state = newState;
+            meterRegistry.counter("webhook.circuit.transitions",
+                    "webhook_id", webhookId.toString(),
+                    "state", newState.name()).increment();
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("webhook_id", webhookId);
+            snapshot.put("state", state.name());
+            snapshot.put("consecutive_failures", consecutiveFailures);
+            if (state == State.OPEN) {
+                snapshot.put("next_probe_at", toLocalDateTime(openUntil));
+            }
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.company.transactionrecovery.domain.service.webhook;
+
+import com.company.transactionrecovery.domain.enums.WebhookDeliveryStatus;
+import com.company.transactionrecovery.domain.model.WebhookDelivery;
+import com.company.transactionrecovery.domain.repository.WebhookDeliveryBatchRepository;
+import com.company.transactionrecovery.domain.repository.WebhookDeliveryBatchRepository.DeliveryState;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind journal for webhook delivery state transitions.
+ * Transitions after the initial PENDING insert (PROCESSING, DELIVERED, FAILED,
+ * RETRY_SCHEDULED, PERMANENTLY_FAILED) are recorded in memory and keyed by
+ * delivery ID, so a delivery that moves through several states between two
+ * flushes only has its latest state written. Pending states are flushed as
+ * multi-row UPDATE statements, either periodically or as soon as a batch is full.
+ * The PENDING row itself is always saved synchronously before any send, so a
+ * delivery whose later states are lost in a crash is picked up again by the
+ * hanging delivery check.
+ */
+@Component
+public class WebhookDeliveryJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDeliveryJournal.class);
+
+    private final WebhookDeliveryBatchRepository batchRepository;
+    private final ObjectMapper objectMapper;
+    private final Executor webhookExecutor;
+
+    @Value("${webhook.journal.batch-size:500}")
+    private int batchSize;
+
+    private final Map<UUID, DeliveryState> pending = new ConcurrentHashMap<>();
+    // States taken from pending by a flush that has not completed yet
+    private final Map<UUID, DeliveryState> flushing = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private final AtomicLong transitionsRecorded = new AtomicLong();
+    private final AtomicLong transitionsCoalesced = new AtomicLong();
+    private final AtomicLong rowsFlushed = new AtomicLong();
+    private final AtomicLong statementsExecuted = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+
+    @Autowired
+    public WebhookDeliveryJournal(
+            WebhookDeliveryBatchRepository batchRepository,
+            ObjectMapper objectMapper,
+            @Qualifier("webhookExecutor") Executor webhookExecutor) {
+        this.batchRepository = batchRepository;
+        this.objectMapper = objectMapper;
+        this.webhookExecutor = webhookExecutor;
+    }
+
+    /**
+     * Records the current state of a delivery, replacing any earlier state of
+     * the same delivery that has not been flushed yet.
+     *
+     * @param delivery The delivery whose state changed
+     * @return The same delivery
+     */
+    public WebhookDelivery record(WebhookDelivery delivery) {
+        LocalDateTime now = LocalDateTime.now();
+        delivery.setUpdatedAt(now);
+
+        DeliveryState state = new DeliveryState(
+                delivery.getId(),
+                delivery.getDeliveryStatus().name(),
+                delivery.getAttemptCount(),
+                delivery.getLastAttemptAt(),
+                delivery.getResponseCode(),
+                delivery.getResponseBody(),
+                toJson(delivery.getErrorDetails()),
+                delivery.getNextRetryAt(),
+                delivery.getLeaseOwner(),
+                delivery.getLeaseExpiresAt(),
+                now);
+
+        transitionsRecorded.incrementAndGet();
+
+        DeliveryState previous = pending.put(delivery.getId(), state);
+        if (previous != null) {
+            transitionsCoalesced.incrementAndGet();
+        }
+
+        // Flush early on the executor rather than waiting for the next tick
+        if (pending.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                webhookExecutor.execute(() -> {
+                    try {
+                        flush();
+                    } finally {
+                        flushScheduled.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Executor saturated, the next tick flushes instead
+                flushScheduled.set(false);
+            }
+        }
+
+        return delivery;
+    }
+
+    /**
+     * Writes all pending states to the database, one statement per batch.
+     * States of a failed batch are put back unless a newer state has been
+     * recorded for the same delivery in the meantime.
+     */
+    @Scheduled(fixedDelayString = "${webhook.journal.flush-interval-ms:200}")
+    public synchronized void flush() {
+        while (!pending.isEmpty()) {
+            List<DeliveryState> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            Iterator<UUID> ids = pending.keySet().iterator();
+
+            while (batch.size() < batchSize && ids.hasNext()) {
+                UUID id = ids.next();
+                DeliveryState state = pending.get(id);
+                if (state == null) {
+                    continue;
+                }
+                // Visible in flushing before it leaves pending, so hasUnflushedRetry never misses it
+                flushing.put(id, state);
+                if (pending.remove(id, state)) {
+                    batch.add(state);
+                } else {
+                    flushing.remove(id, state);
+                }
+            }
+
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                int updated = batchRepository.updateDeliveryStates(batch);
+                statementsExecuted.incrementAndGet();
+                rowsFlushed.addAndGet(updated);
+
+                if (updated < batch.size()) {
+                    logger.debug("Skipped {} stale webhook delivery states", batch.size() - updated);
+                }
+            } catch (Exception e) {
+                flushFailures.incrementAndGet();
+                batch.forEach(state -> pending.putIfAbsent(state.getId(), state));
+
+                logger.error("Error flushing {} webhook delivery states, will retry: {}",
+                        batch.size(), e.getMessage());
+                return;
+            } finally {
+                batch.forEach(state -> flushing.remove(state.getId(), state));
+            }
+        }
+    }
+
+    /**
+     * Checks whether the latest recorded state of a delivery is a scheduled
+     * retry that is not in the database yet.
+     *
+     * @param deliveryId The delivery ID
+     * @return true if a RETRY_SCHEDULED state is waiting for or in a flush
+     */
+    public boolean hasUnflushedRetry(UUID deliveryId) {
+        DeliveryState state = pending.get(deliveryId);
+        if (state == null) {
+            state = flushing.get(deliveryId);
+        }
+        return state != null && WebhookDeliveryStatus.RETRY_SCHEDULED.name().equals(state.getDeliveryStatus());
+    }
+
+    /**
+     * Flushes any pending states on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+
+        if (!pending.isEmpty()) {
+            logger.warn("{} webhook delivery states were not flushed on shutdown", pending.size());
+        }
+    }
+
+    /**
+     * Gets journal statistics, including the average number of database
+     * statements issued per recorded state transition.
+     *
+     * @return Map containing journal statistics
+     */
+    public Map<String, Object> getStats() {
+        long recorded = transitionsRecorded.get();
+        long statements = statementsExecuted.get();
+
+        double roundTripsPerTransition = recorded > 0 ? (double) statements / recorded : 0;
+
+        return Map.of(
+                "pending", pending.size(),
+                "transitionsRecorded", recorded,
+                "transitionsCoalesced", transitionsCoalesced.get(),
+                "rowsFlushed", rowsFlushed.get(),
+                "statementsExecuted", statements,
+                "flushFailures", flushFailures.get(),
+                "roundTripsPerTransition", Math.round(roundTripsPerTransition * 1000) / 1000.0
+        );
+    }
+
+    private String toJson(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize webhook delivery error details: {}", e.getMessage());
+            return null;
+        }
+    }
+}
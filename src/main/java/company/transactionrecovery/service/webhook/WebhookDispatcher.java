@@ -0,0 +1,461 @@
+package com.company.transactionrecovery.domain.service.webhook;
+
+import com.company.transactionrecovery.domain.enums.WebhookDeliveryStatus;
+import com.company.transactionrecovery.domain.model.WebhookConfig;
+import com.company.transactionrecovery.domain.model.WebhookDelivery;
+import com.company.transactionrecovery.infrastructure.http.WebhookClient;
+import com.company.transactionrecovery.infrastructure.scheduler.WebhookRetryTimingWheel;
+import com.company.transactionrecovery.util.SignatureUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Non-blocking delivery engine for webhook notifications.
+ * Requests are issued through the reactive WebhookClient, so a delivery only
+ * holds a worker thread while its state is persisted, never while waiting
+ * for the subscriber to answer. Requests are admitted through the per-endpoint
+ * bulkheads of WebhookBulkheadRegistry, and short-circuited while the endpoint's
+ * breaker in WebhookCircuitBreakerRegistry is open; temporary configurations
+ * of unregistered URLs bypass the breakers. State transitions are
+ * written behind through WebhookDeliveryJournal. When the webhook executor's
+ * queue is nearly full, or with virtual threads when too many deliveries are
+ * in flight, new deliveries are spilled back to the database as
+ * RETRY_SCHEDULED a moment later instead of being queued, so callers never
+ * wait for executor capacity. Continuations that the executor rejects fail
+ * their delivery's stage, which hands the delivery to the retry path; they
+ * never run on the completing thread, usually a Netty event loop.
+ */
+@Service
+public class WebhookDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    private final WebhookDeliveryJournal deliveryJournal;
+    private final WebhookStatsAggregator statsAggregator;
+    private final WebhookClient webhookClient;
+    private final WebhookBulkheadRegistry bulkheadRegistry;
+    private final WebhookCircuitBreakerRegistry circuitBreakerRegistry;
+    private final WebhookRetryTimingWheel retryTimingWheel;
+    private final SignatureUtils signatureUtils;
+    private final ObjectMapper objectMapper;
+    private final Executor webhookExecutor;
+
+    @Value("${webhook.overflow.queue-headroom:10}")
+    private int queueHeadroom;
+
+    @Value("${webhook.overflow.retry-delay-ms:1000}")
+    private long overflowRetryDelayMs;
+
+    // Only bounds executors without a queue, such as the virtual-thread executor
+    @Value("${webhook.overflow.max-in-flight:1000}")
+    private int maxInFlight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Autowired
+    public WebhookDispatcher(
+            WebhookDeliveryJournal deliveryJournal,
+            WebhookStatsAggregator statsAggregator,
+            WebhookClient webhookClient,
+            WebhookBulkheadRegistry bulkheadRegistry,
+            WebhookCircuitBreakerRegistry circuitBreakerRegistry,
+            WebhookRetryTimingWheel retryTimingWheel,
+            SignatureUtils signatureUtils,
+            ObjectMapper objectMapper,
+            @Qualifier("webhookExecutor") Executor webhookExecutor) {
+        this.deliveryJournal = deliveryJournal;
+        this.statsAggregator = statsAggregator;
+        this.webhookClient = webhookClient;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.retryTimingWheel = retryTimingWheel;
+        this.signatureUtils = signatureUtils;
+        this.objectMapper = objectMapper;
+        this.webhookExecutor = webhookExecutor;
+    }
+
+    /**
+     * Dispatches a webhook delivery without blocking the calling thread.
+     * If the caller runs inside a transaction, the delivery is only started once
+     * that transaction has committed, so the PENDING row is always durable first.
+     * The returned stage completes on the webhook executor with the DELIVERED
+     * delivery, or exceptionally with the cause of the failure; failure handling
+     * (retry scheduling, stats) is left to the caller. If the endpoint's circuit
+     * is open, the delivery completes normally as RETRY_SCHEDULED at the next
+     * probe time without any network call.
+     *
+     * @param delivery The delivery to send
+     * @param config The webhook configuration of the target endpoint
+     * @return CompletableFuture completed once the subscriber has answered
+     */
+    public CompletableFuture<WebhookDelivery> dispatch(WebhookDelivery delivery, WebhookConfig config) {
+        return dispatch(delivery, config, null);
+    }
+
+    /**
+     * Dispatches a webhook delivery whose payload has already been serialized.
+     * Used when the same event is fanned out to several subscribers, so the
+     * payload is serialized once and the same bytes are signed and sent to each.
+     *
+     * @param delivery The delivery to send
+     * @param config The webhook configuration of the target endpoint
+     * @param payload The serialized payload, as returned by serializePayload, or null
+     *                to serialize the delivery's payload on dispatch
+     * @return CompletableFuture completed once the subscriber has answered
+     */
+    public CompletableFuture<WebhookDelivery> dispatch(
+            WebhookDelivery delivery, WebhookConfig config, byte[] payload) {
+        return dispatchAfter(afterCommit(), delivery, config, payload);
+    }
+
+    /**
+     * Dispatches all deliveries of a fan-out as one unit: a single commit hook
+     * releases every delivery, and all of them share the same serialized payload.
+     *
+     * @param deliveries The deliveries to send
+     * @param configs The webhook configurations of the deliveries, keyed by webhook ID
+     * @param payload The serialized payload shared by all deliveries, or null
+     * @return One CompletableFuture per delivery, in the same order as the deliveries
+     */
+    public List<CompletableFuture<WebhookDelivery>> dispatchAll(
+            List<WebhookDelivery> deliveries, Map<UUID, WebhookConfig> configs, byte[] payload) {
+
+        CompletableFuture<Void> committed = afterCommit();
+        List<CompletableFuture<WebhookDelivery>> dispatched = new ArrayList<>(deliveries.size());
+
+        for (WebhookDelivery delivery : deliveries) {
+            dispatched.add(dispatchAfter(committed, delivery, configs.get(delivery.getWebhookId()), payload));
+        }
+
+        return dispatched;
+    }
+
+    /**
+     * Dispatches the deliveries of many fan-outs as one unit: a single commit hook
+     * releases every delivery, and each delivery is sent with the serialized
+     * payload of its transaction.
+     *
+     * @param deliveries The deliveries to send
+     * @param configs The webhook configurations of the deliveries, keyed by webhook ID
+     * @param payloads The serialized payloads, keyed by transaction ID
+     * @return One CompletableFuture per delivery, in the same order as the deliveries
+     */
+    public List<CompletableFuture<WebhookDelivery>> dispatchBatch(
+            List<WebhookDelivery> deliveries, Map<UUID, WebhookConfig> configs, Map<UUID, byte[]> payloads) {
+
+        CompletableFuture<Void> committed = afterCommit();
+        List<CompletableFuture<WebhookDelivery>> dispatched = new ArrayList<>(deliveries.size());
+
+        for (WebhookDelivery delivery : deliveries) {
+            dispatched.add(dispatchAfter(committed, delivery, configs.get(delivery.getWebhookId()),
+                    payloads.get(delivery.getTransactionId())));
+        }
+
+        return dispatched;
+    }
+
+    /**
+     * Starts a delivery once the given commit stage completes.
+     */
+    private CompletableFuture<WebhookDelivery> dispatchAfter(
+            CompletableFuture<Void> committed, WebhookDelivery delivery, WebhookConfig config, byte[] payload) {
+        return committed
+                .thenCompose(ignored -> {
+                    if (isSaturated()) {
+                        return spill(delivery, config, payload);
+                    }
+                    inFlight.incrementAndGet();
+                    CompletableFuture<WebhookDelivery> sent;
+                    try {
+                        sent = CompletableFuture.supplyAsync(() -> {
+                            if (config.isTemporary()) {
+                                return send(markProcessing(delivery), config, payload);
+                            }
+                            if (!circuitBreakerRegistry.tryAcquire(config.getId())) {
+                                return CompletableFuture.completedFuture(shortCircuit(delivery, config));
+                            }
+                            try {
+                                return send(markProcessing(delivery), config, payload);
+                            } catch (RuntimeException e) {
+                                circuitBreakerRegistry.release(config.getId());
+                                throw e;
+                            }
+                        }, webhookExecutor).thenCompose(Function.identity());
+                    } catch (RejectedExecutionException e) {
+                        // The executor's overflow is full as well
+                        inFlight.decrementAndGet();
+                        return spill(delivery, config, payload);
+                    }
+                    return sent.whenComplete((result, error) -> inFlight.decrementAndGet());
+                })
+                .handleAsync((sent, error) -> {
+                    if (error != null) {
+                        throw new CompletionException(unwrap(error));
+                    }
+                    return sent;
+                }, webhookExecutor);
+    }
+
+    /**
+     * Serializes a webhook payload to UTF-8 encoded JSON.
+     * Jackson writes through its own recycled buffers, so the returned array
+     * is the only copy of the serialized event.
+     *
+     * @param payload The payload to serialize
+     * @return The serialized payload, or null if it cannot be serialized (the
+     *         error is then raised again when the delivery is dispatched)
+     */
+    public byte[] serializePayload(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (Exception e) {
+            logger.error("Error serializing webhook payload: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Unwraps the CompletionException wrappers added by CompletableFuture.
+     *
+     * @param error The error passed to a completion callback
+     * @return The underlying cause
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Checks whether a dispatch failed only because the enclosing transaction
+     * rolled back, in which case the delivery was never persisted or sent.
+     *
+     * @param error The error passed to a completion callback
+     * @return true if the dispatch was aborted, false otherwise
+     */
+    public static boolean isAborted(Throwable error) {
+        return unwrap(error) instanceof CancellationException;
+    }
+
+    /**
+     * Returns a stage that completes when the current transaction commits,
+     * or immediately if no transaction is active.
+     */
+    private CompletableFuture<Void> afterCommit() {
+        CompletableFuture<Void> committed = new CompletableFuture<>();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed.complete(null);
+            return committed;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    committed.complete(null);
+                } else {
+                    committed.cancel(false);
+                }
+            }
+        });
+
+        return committed;
+    }
+
+    /**
+     * Reschedules a delivery for the breaker's next probe without sending it.
+     */
+    private WebhookDelivery shortCircuit(WebhookDelivery delivery, WebhookConfig config) {
+        LocalDateTime nextProbeAt = circuitBreakerRegistry.getNextProbeAt(config.getId());
+
+        logger.info("Circuit open for webhook {}, rescheduling delivery {} for {}",
+                config.getId(), delivery.getId(), nextProbeAt);
+
+        delivery.scheduleRetry(nextProbeAt, retryTimingWheel.getNodeId());
+
+        deliveryJournal.record(delivery);
+        retryTimingWheel.schedule(delivery);
+
+        return delivery;
+    }
+
+    /**
+     * Checks whether the webhook executor is too busy to take a new delivery.
+     * For a thread pool, some headroom is kept so that the stages of deliveries
+     * already in flight can still be queued. Executors without a queue start a
+     * thread per task, so they are bounded by the number of deliveries in flight.
+     */
+    private boolean isSaturated() {
+        if (!(webhookExecutor instanceof ThreadPoolTaskExecutor)) {
+            return inFlight.get() >= maxInFlight;
+        }
+
+        ThreadPoolExecutor pool = ((ThreadPoolTaskExecutor) webhookExecutor).getThreadPoolExecutor();
+        return pool.getQueue().remainingCapacity() < queueHeadroom;
+    }
+
+    /**
+     * Hands a delivery back to the database instead of queueing it on a saturated
+     * executor. It is not counted as an attempt; the retry timing wheel re-injects
+     * it shortly, and spills it again if the executor is still saturated.
+     * Deliveries to temporary configurations have no row to be re-injected from,
+     * so they are dispatched again from memory after the same delay.
+     */
+    private CompletableFuture<WebhookDelivery> spill(
+            WebhookDelivery delivery, WebhookConfig config, byte[] payload) {
+        logger.info("Webhook executor saturated, spilling delivery {} for retry in {}ms",
+                delivery.getId(), overflowRetryDelayMs);
+
+        if (config.isTemporary()) {
+            return CompletableFuture
+                    .runAsync(() -> { }, CompletableFuture.delayedExecutor(overflowRetryDelayMs, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> dispatchAfter(
+                            CompletableFuture.completedFuture(null), delivery, config, payload));
+        }
+
+        delivery.scheduleRetry(LocalDateTime.now().plus(overflowRetryDelayMs, ChronoUnit.MILLIS),
+                retryTimingWheel.getNodeId());
+
+        deliveryJournal.record(delivery);
+        retryTimingWheel.schedule(delivery);
+
+        return CompletableFuture.completedFuture(delivery);
+    }
+
+    /**
+     * Marks the delivery as PROCESSING before the request is issued.
+     */
+    private WebhookDelivery markProcessing(WebhookDelivery delivery) {
+        logger.info("Sending webhook delivery: {}, event: {}, attempt: {}",
+                delivery.getId(), delivery.getEventType(), delivery.getAttemptCount() + 1);
+
+        delivery.setDeliveryStatus(WebhookDeliveryStatus.PROCESSING);
+        delivery.recordAttempt(WebhookDeliveryStatus.PROCESSING, null, null);
+
+        // Usually coalesced with the outcome of the request into a single write
+        return deliveryJournal.record(delivery);
+    }
+
+    /**
+     * Serializes, signs and sends the delivery, recording the outcome once
+     * the response arrives.
+     */
+    private CompletableFuture<WebhookDelivery> send(
+            WebhookDelivery delivery, WebhookConfig config, byte[] serializedPayload) {
+        byte[] payload;
+        Map<String, Object> headers = new HashMap<>();
+
+        try {
+            // Serialize payload to JSON, unless it was serialized once for the whole fan-out
+            payload = serializedPayload != null
+                    ? serializedPayload
+                    : objectMapper.writeValueAsBytes(delivery.getPayload());
+
+            // Generate signature over the exact bytes that are sent
+            String signature = signatureUtils.generateHmacSignature(payload, config.getSecurityToken());
+
+            headers.put("X-Webhook-Signature", signature);
+            headers.put("X-Webhook-ID", config.getId().toString());
+            headers.put("X-Delivery-ID", delivery.getId().toString());
+            headers.put("X-Event-Type", delivery.getEventType().toString());
+            headers.put("Content-Type", "application/json");
+
+            // Add replay protection
+            headers.put("X-Webhook-Timestamp", createReplayProtection());
+        } catch (Exception e) {
+            if (!config.isTemporary()) {
+                circuitBreakerRegistry.release(config.getId());
+            }
+            CompletableFuture<WebhookDelivery> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        // Send within the endpoint's bulkhead so a slow subscriber only queues its own deliveries
+        return bulkheadRegistry.execute(config.getId(),
+                        () -> webhookClient.sendWebhookAsync(config.getCallbackUrl(), payload, headers))
+                .whenComplete((response, error) -> recordCircuitOutcome(config, error))
+                .thenApplyAsync(response -> recordDelivered(delivery, config, response), webhookExecutor);
+    }
+
+    /**
+     * Feeds the outcome of a request to the endpoint's circuit breaker.
+     * Bulkhead rejections say nothing about the endpoint and only release the
+     * delivery. Temporary configurations have no breaker.
+     */
+    private void recordCircuitOutcome(WebhookConfig config, Throwable error) {
+        if (config.isTemporary()) {
+            return;
+        }
+
+        if (error == null) {
+            circuitBreakerRegistry.recordSuccess(config.getId());
+        } else if (unwrap(error) instanceof RejectedExecutionException) {
+            circuitBreakerRegistry.release(config.getId());
+        } else {
+            circuitBreakerRegistry.recordFailure(config.getId());
+        }
+    }
+
+    /**
+     * Records a successful delivery and updates the webhook stats.
+     */
+    private WebhookDelivery recordDelivered(
+            WebhookDelivery delivery, WebhookConfig config, WebhookClient.WebhookResponse response) {
+
+        // Update delivery with response
+        delivery.recordAttempt(
+                WebhookDeliveryStatus.DELIVERED,
+                response.getStatusCode(),
+                response.getBody());
+
+        WebhookDelivery savedDelivery = deliveryJournal.record(delivery);
+
+        // Update webhook stats
+        statsAggregator.recordSuccess(config.getId());
+
+        logger.info("Webhook delivery successful: {}, status code: {}, duration: {}ms",
+                savedDelivery.getId(), response.getStatusCode(), response.getDurationMs());
+
+        return savedDelivery;
+    }
+
+    /**
+     * Creates a replay protection timestamp.
+     *
+     * @return A timestamp string for replay protection
+     */
+    private String createReplayProtection() {
+        long timestamp = System.currentTimeMillis();
+        String nonce = UUID.randomUUID().toString();
+        return "t=" + timestamp + ",n=" + nonce;
+    }
+}
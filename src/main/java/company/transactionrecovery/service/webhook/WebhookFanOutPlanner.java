@@ -0,0 +1,127 @@
+package com.company.transactionrecovery.domain.service.webhook;
+
+import com.company.transactionrecovery.domain.enums.WebhookEventType;
+import com.company.transactionrecovery.domain.model.Transaction;
+import com.company.transactionrecovery.domain.model.WebhookConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolves the subscribers a transaction event has to be delivered to.
+ * The transaction's own webhook URL, if any, comes first, followed by every
+ * active webhook of the transaction's origin system subscribed to the event.
+ * Subscribers are resolved from the in-memory WebhookRoutingTable, so
+ * planning a fan-out does not read the database.
+ */
+@Component
+public class WebhookFanOutPlanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookFanOutPlanner.class);
+
+    private final WebhookRoutingTable routingTable;
+
+    @Autowired
+    public WebhookFanOutPlanner(WebhookRoutingTable routingTable) {
+        this.routingTable = routingTable;
+    }
+
+    /**
+     * Resolves the subscribers of a transaction event, each at most once.
+     *
+     * @param transaction The transaction that triggered the event
+     * @param eventType The event type
+     * @return The webhook configurations to deliver the event to
+     */
+    public List<WebhookConfig> resolveSubscribers(Transaction transaction, WebhookEventType eventType) {
+        return resolveSubscribers(transaction, eventType,
+                routingTable.getSubscribers(transaction.getOriginSystem(), eventType));
+    }
+
+    /**
+     * Resolves the subscribers of the same event for many transactions at once.
+     * The subscribers of each origin system are looked up once for the whole batch.
+     *
+     * @param transactions The transactions that triggered the event
+     * @param eventType The event type
+     * @return The webhook configurations to deliver the event to, keyed by
+     *         transaction ID in the order of the transactions
+     */
+    public Map<UUID, List<WebhookConfig>> resolveSubscribers(
+            List<Transaction> transactions, WebhookEventType eventType) {
+        Map<String, List<WebhookConfig>> configsByOriginSystem = new HashMap<>();
+        Map<UUID, List<WebhookConfig>> subscribers = new LinkedHashMap<>();
+
+        for (Transaction transaction : transactions) {
+            List<WebhookConfig> configs = configsByOriginSystem.computeIfAbsent(
+                    transaction.getOriginSystem(), originSystem -> routingTable.getSubscribers(originSystem, eventType));
+            subscribers.put(transaction.getId(), resolveSubscribers(transaction, eventType, configs));
+        }
+
+        return subscribers;
+    }
+
+    /**
+     * Resolves the subscribers of a transaction event given the active webhooks
+     * of its origin system subscribed to the event.
+     */
+    private List<WebhookConfig> resolveSubscribers(
+            Transaction transaction, WebhookEventType eventType, List<WebhookConfig> configs) {
+        List<WebhookConfig> subscribers = new ArrayList<>();
+
+        // First, check if the transaction has a specific webhook URL configured
+        if (transaction.hasWebhookEnabled()) {
+            subscribers.add(resolveTransactionWebhook(transaction));
+        }
+
+        // Then, add all active webhooks of the origin system configured for this event type
+        for (WebhookConfig config : configs) {
+            // Skip if this is the same as the transaction-specific webhook
+            if (transaction.hasWebhookEnabled() &&
+                config.getCallbackUrl().equals(transaction.getWebhookUrl())) {
+                continue;
+            }
+            subscribers.add(config);
+        }
+
+        logger.debug("Resolved {} subscribers for {} of transaction {}",
+                subscribers.size(), eventType, transaction.getId());
+
+        return subscribers;
+    }
+
+    /**
+     * Resolves the configuration of a transaction-specific webhook URL.
+     */
+    private WebhookConfig resolveTransactionWebhook(Transaction transaction) {
+        return routingTable.findByCallbackUrl(transaction.getWebhookUrl())
+                .orElseGet(() -> {
+                    // If not found, create a temporary config (not saved to DB)
+                    return WebhookConfig.builder()
+                            .id(temporaryWebhookId(transaction.getWebhookUrl()))
+                            .callbackUrl(transaction.getWebhookUrl())
+                            .securityToken(transaction.getWebhookSecurityToken())
+                            .originSystem(transaction.getOriginSystem())
+                            .isActive(true)
+                            .temporary(true)
+                            .build();
+                });
+    }
+
+    /**
+     * Derives the ID of a temporary configuration from its callback URL, so all
+     * deliveries to the same unregistered URL share one bulkhead.
+     */
+    static UUID temporaryWebhookId(String callbackUrl) {
+        return UUID.nameUUIDFromBytes(callbackUrl.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -4,6 +4,8 @@ import com.company.transactionrecovery.api.exception.GlobalExceptionHandler.Webh
 import com.company.transactionrecovery.domain.enums.WebhookEventType;
 import com.company.transactionrecovery.domain.model.WebhookConfig;
 import com.company.transactionrecovery.domain.repository.WebhookConfigRepository;
+import com.company.transactionrecovery.infrastructure.kafka.producer.WebhookConfigChangeProducer;
+import com.company.transactionrecovery.util.HmacSigner;
 import com.company.transactionrecovery.util.SignatureUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +13,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,6 +33,12 @@ public class WebhookRegistrationService {
 
     private final WebhookConfigRepository webhookConfigRepository;
     private final WebhookSecurityService securityService;
+    private final HmacSigner hmacSigner;
+    private final WebhookRoutingTable routingTable;
+    private final WebhookConfigChangeProducer configChangeProducer;
+    private final WebhookBulkheadRegistry bulkheadRegistry;
+    private final WebhookCircuitBreakerRegistry circuitBreakerRegistry;
+    private final WebhookStatsAggregator statsAggregator;
 
     @Value("${webhook.default-max-retries:5}")
     private int defaultMaxRetries;
@@ -42,9 +52,21 @@ public class WebhookRegistrationService {
     @Autowired
     public WebhookRegistrationService(
             WebhookConfigRepository webhookConfigRepository,
-            WebhookSecurityService securityService) {
+            WebhookSecurityService securityService,
+            HmacSigner hmacSigner,
+            WebhookRoutingTable routingTable,
+            WebhookConfigChangeProducer configChangeProducer,
+            WebhookBulkheadRegistry bulkheadRegistry,
+            WebhookCircuitBreakerRegistry circuitBreakerRegistry,
+            WebhookStatsAggregator statsAggregator) {
         this.webhookConfigRepository = webhookConfigRepository;
         this.securityService = securityService;
+        this.hmacSigner = hmacSigner;
+        this.routingTable = routingTable;
+        this.configChangeProducer = configChangeProducer;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.statsAggregator = statsAggregator;
     }
 
     /**
@@ -88,7 +110,7 @@ public class WebhookRegistrationService {
                 .maxRetries(defaultMaxRetries)
                 .build();
         
-        return webhookConfigRepository.save(config);
+        return publishChange(webhookConfigRepository.save(config));
     }
 
     /**
@@ -125,6 +147,9 @@ public class WebhookRegistrationService {
         
         if (securityToken != null) {
             String hashedToken = securityService.hashSecurityToken(securityToken);
+            
+            // Drop signing engines initialized with the old token
+            hmacSigner.invalidate(config.getSecurityToken());
             config.setSecurityToken(hashedToken);
         }
         
@@ -134,7 +159,7 @@ public class WebhookRegistrationService {
         
         config.setUpdatedAt(LocalDateTime.now());
         
-        return webhookConfigRepository.save(config);
+        return publishChange(webhookConfigRepository.save(config));
     }
 
     /**
@@ -144,12 +169,13 @@ public class WebhookRegistrationService {
      */
     @Transactional
     public void deleteWebhook(UUID webhookId) {
-        if (!webhookConfigRepository.existsById(webhookId)) {
-            throw new WebhookNotFoundException("Webhook not found with ID: " + webhookId);
-        }
+        WebhookConfig config = webhookConfigRepository.findById(webhookId)
+                .orElseThrow(() -> new WebhookNotFoundException("Webhook not found with ID: " + webhookId));
         
         logger.info("Deleting webhook: {}", webhookId);
         webhookConfigRepository.deleteById(webhookId);
+        hmacSigner.invalidate(config.getSecurityToken());
+        publishDeletion(webhookId);
     }
 
     /**
@@ -204,7 +230,7 @@ public class WebhookRegistrationService {
         WebhookConfig config = getWebhookById(webhookId);
         config.setMaxRetries(maxRetries);
         
-        return webhookConfigRepository.save(config);
+        return publishChange(webhookConfigRepository.save(config));
     }
 
     /**
@@ -219,7 +245,7 @@ public class WebhookRegistrationService {
         WebhookConfig config = getWebhookById(webhookId);
         config.setContactEmail(contactEmail);
         
-        return webhookConfigRepository.save(config);
+        return publishChange(webhookConfigRepository.save(config));
     }
 
     /**
@@ -234,7 +260,52 @@ public class WebhookRegistrationService {
         WebhookConfig config = getWebhookById(webhookId);
         config.setDescription(description);
         
-        return webhookConfigRepository.save(config);
+        return publishChange(webhookConfigRepository.save(config));
+    }
+
+    /**
+     * Applies a saved configuration to the routing table and notifies the other
+     * nodes once the transaction has committed.
+     */
+    private WebhookConfig publishChange(WebhookConfig saved) {
+        afterCommit(() -> {
+            routingTable.apply(saved);
+            configChangeProducer.publishChange(saved.getId(), false);
+        });
+        return saved;
+    }
+
+    /**
+     * Removes a deleted configuration from the routing table, drops its
+     * per-webhook state and notifies the other nodes once the transaction has
+     * committed.
+     */
+    private void publishDeletion(UUID webhookId) {
+        afterCommit(() -> {
+            routingTable.remove(webhookId);
+            bulkheadRegistry.remove(webhookId);
+            circuitBreakerRegistry.remove(webhookId);
+            statsAggregator.remove(webhookId);
+            configChangeProducer.publishChange(webhookId, true);
+        });
+    }
+
+    /**
+     * Runs an action after the current transaction commits, or immediately if
+     * no transaction is active.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     /**
@@ -285,6 +356,6 @@ public class WebhookRegistrationService {
         
         logger.info("{} webhook: {}", active ? "Activating" : "Deactivating", webhookId);
         
-        return webhookConfigRepository.save(config);
+        return publishChange(webhookConfigRepository.save(config));
     }
 }
@@ -0,0 +1,202 @@
+package com.company.transactionrecovery.domain.service.webhook;
+
+import com.company.transactionrecovery.domain.enums.WebhookEventType;
+import com.company.transactionrecovery.domain.model.WebhookConfig;
+import com.company.transactionrecovery.domain.repository.WebhookConfigRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-mostly, in-memory routing table of webhook configurations.
+ * Lookups by (origin system, event type), ID or callback URL read an immutable
+ * snapshot and never touch the database. Changes are applied copy-on-write:
+ * each change builds a new snapshot and publishes it with a single volatile write.
+ * The table is loaded at startup, kept current by WebhookRegistrationService and
+ * by change notifications from other nodes, and fully reloaded periodically as
+ * a safety net.
+ */
+@Component
+public class WebhookRoutingTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookRoutingTable.class);
+
+    private static final WebhookConfig[] NO_SUBSCRIBERS = new WebhookConfig[0];
+
+    private final WebhookConfigRepository webhookConfigRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap());
+
+    @Autowired
+    public WebhookRoutingTable(WebhookConfigRepository webhookConfigRepository) {
+        this.webhookConfigRepository = webhookConfigRepository;
+    }
+
+    /**
+     * Loads the table at startup.
+     */
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the table from the database.
+     */
+    @Scheduled(fixedDelayString = "${webhook.routing.reload-interval-ms:300000}",
+               initialDelayString = "${webhook.routing.reload-interval-ms:300000}")
+    public synchronized void reload() {
+        Map<UUID, WebhookConfig> configs = new HashMap<>();
+        webhookConfigRepository.findAll().forEach(config -> configs.put(config.getId(), config));
+
+        snapshot = new Snapshot(configs);
+
+        logger.debug("Loaded webhook routing table with {} webhooks", configs.size());
+    }
+
+    /**
+     * Gets the active webhooks of an origin system subscribed to an event type.
+     *
+     * @param originSystem The origin system identifier
+     * @param eventType The event type
+     * @return Unmodifiable list of webhook configurations
+     */
+    public List<WebhookConfig> getSubscribers(String originSystem, WebhookEventType eventType) {
+        Map<WebhookEventType, WebhookConfig[]> routes = snapshot.routes.get(originSystem);
+        if (routes == null) {
+            return Collections.emptyList();
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(routes.getOrDefault(eventType, NO_SUBSCRIBERS)));
+    }
+
+    /**
+     * Finds a webhook configuration by its ID, active or not.
+     *
+     * @param webhookId The webhook ID
+     * @return Optional containing the webhook configuration if found
+     */
+    public Optional<WebhookConfig> findById(UUID webhookId) {
+        return Optional.ofNullable(snapshot.byId.get(webhookId));
+    }
+
+    /**
+     * Finds a webhook configuration by its callback URL.
+     *
+     * @param callbackUrl The callback URL
+     * @return Optional containing the webhook configuration if found
+     */
+    public Optional<WebhookConfig> findByCallbackUrl(String callbackUrl) {
+        return Optional.ofNullable(snapshot.byCallbackUrl.get(callbackUrl));
+    }
+
+    /**
+     * Adds or replaces a webhook configuration.
+     *
+     * @param config The saved webhook configuration
+     */
+    public synchronized void apply(WebhookConfig config) {
+        Map<UUID, WebhookConfig> configs = new HashMap<>(snapshot.byId);
+        configs.put(config.getId(), config);
+        snapshot = new Snapshot(configs);
+    }
+
+    /**
+     * Removes a webhook configuration.
+     *
+     * @param webhookId The webhook ID
+     */
+    public synchronized void remove(UUID webhookId) {
+        if (!snapshot.byId.containsKey(webhookId)) {
+            return;
+        }
+
+        Map<UUID, WebhookConfig> configs = new HashMap<>(snapshot.byId);
+        configs.remove(webhookId);
+        snapshot = new Snapshot(configs);
+    }
+
+    /**
+     * Re-reads a single webhook configuration from the database, e.g. after
+     * another node reported a change to it.
+     *
+     * @param webhookId The webhook ID
+     */
+    public void refresh(UUID webhookId) {
+        Optional<WebhookConfig> config = webhookConfigRepository.findById(webhookId);
+
+        if (config.isPresent()) {
+            apply(config.get());
+        } else {
+            remove(webhookId);
+        }
+    }
+
+    /**
+     * Gets the number of webhooks in the table.
+     *
+     * @return The number of webhooks
+     */
+    public int size() {
+        return snapshot.byId.size();
+    }
+
+    /**
+     * Immutable view of all webhook configurations and the routes derived from them.
+     */
+    private static final class Snapshot {
+
+        private final Map<UUID, WebhookConfig> byId;
+        private final Map<String, WebhookConfig> byCallbackUrl;
+        private final Map<String, Map<WebhookEventType, WebhookConfig[]>> routes;
+
+        Snapshot(Map<UUID, WebhookConfig> configs) {
+            Map<String, WebhookConfig> urls = new HashMap<>();
+            Map<String, Map<WebhookEventType, List<WebhookConfig>>> lists = new HashMap<>();
+
+            for (WebhookConfig config : configs.values()) {
+                urls.put(config.getCallbackUrl(), config);
+
+                if (!Boolean.TRUE.equals(config.getIsActive()) || config.getEvents() == null) {
+                    continue;
+                }
+
+                Map<WebhookEventType, List<WebhookConfig>> byEvent = lists.computeIfAbsent(
+                        config.getOriginSystem(), origin -> new EnumMap<>(WebhookEventType.class));
+
+                for (WebhookEventType eventType : config.getEvents()) {
+                    byEvent.computeIfAbsent(eventType, type -> new ArrayList<>()).add(config);
+                }
+            }
+
+            Map<String, Map<WebhookEventType, WebhookConfig[]>> built = new HashMap<>();
+            lists.forEach((origin, byEvent) -> {
+                Map<WebhookEventType, WebhookConfig[]> arrays = new EnumMap<>(WebhookEventType.class);
+                byEvent.forEach((eventType, list) -> arrays.put(eventType, toArray(list)));
+                built.put(origin, arrays);
+            });
+
+            this.byId = Collections.unmodifiableMap(configs);
+            this.byCallbackUrl = Collections.unmodifiableMap(urls);
+            this.routes = Collections.unmodifiableMap(built);
+        }
+
+        private static WebhookConfig[] toArray(Collection<WebhookConfig> configs) {
+            return configs.toArray(NO_SUBSCRIBERS);
+        }
+    }
+}
@@ -1,14 +1,14 @@
 package com.company.transactionrecovery.domain.service.webhook;
 
+import com.company.transactionrecovery.util.HmacSigner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -27,6 +27,7 @@ public class WebhookSecurityService {
 
     private final PasswordEncoder passwordEncoder;
     private final SecureRandom secureRandom;
+    private final HmacSigner hmacSigner;
 
     @Value("${webhook.signature.algorithm:HmacSHA256}")
     private String signatureAlgorithm;
@@ -37,9 +38,11 @@ public class WebhookSecurityService {
     /**
      * Constructor.
      */
-    public WebhookSecurityService() {
+    @Autowired
+    public WebhookSecurityService(HmacSigner hmacSigner) {
         this.passwordEncoder = new BCryptPasswordEncoder();
         this.secureRandom = new SecureRandom();
+        this.hmacSigner = hmacSigner;
     }
 
     /**
@@ -87,12 +90,8 @@ public class WebhookSecurityService {
     public String generateSignature(String payload, String secretKey) 
             throws NoSuchAlgorithmException, InvalidKeyException {
         
-        Mac hmac = Mac.getInstance(signatureAlgorithm);
-        SecretKeySpec keySpec = new SecretKeySpec(
-                secretKey.getBytes(StandardCharsets.UTF_8), signatureAlgorithm);
-        
-        hmac.init(keySpec);
-        byte[] hmacBytes = hmac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        byte[] hmacBytes = hmacSigner.sign(
+                payload.getBytes(StandardCharsets.UTF_8), secretKey, signatureAlgorithm);
         
         return Base64.getEncoder().encodeToString(hmacBytes);
     }
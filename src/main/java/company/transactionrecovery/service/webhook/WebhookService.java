@@ -28,6 +28,21 @@ public interface WebhookService {
             WebhookEventType eventType, 
             Map<String, Object> additionalData);
 
+    /**
+     * Sends webhook notifications for the same event of many transactions.
+     * The fan-out is planned once for the whole batch and the deliveries are
+     * written with a single statement.
+     *
+     * @param transactions The transactions that triggered the event
+     * @param eventType The type of event
+     * @param additionalData Additional data to include in every notification
+     * @return List of created webhook deliveries
+     */
+    List<WebhookDelivery> sendTransactionEventNotifications(
+            List<Transaction> transactions,
+            WebhookEventType eventType,
+            Map<String, Object> additionalData);
+
     /**
      * Sends a webhook notification to a specific URL.
      *
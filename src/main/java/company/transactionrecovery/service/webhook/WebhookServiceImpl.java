@@ -8,29 +8,32 @@ import com.company.transactionrecovery.domain.model.Transaction;
 import com.company.transactionrecovery.domain.model.WebhookConfig;
 import com.company.transactionrecovery.domain.model.WebhookDelivery;
 import com.company.transactionrecovery.domain.repository.WebhookConfigRepository;
+import com.company.transactionrecovery.domain.repository.WebhookDeliveryBatchRepository;
+import com.company.transactionrecovery.domain.repository.WebhookDeliveryBatchRepository.NewDelivery;
 import com.company.transactionrecovery.domain.repository.WebhookDeliveryRepository;
-import com.company.transactionrecovery.infrastructure.http.WebhookClient;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.company.transactionrecovery.infrastructure.scheduler.WebhookRetryTimingWheel;
+import com.company.transactionrecovery.util.HmacSigner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import javax.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementation of the WebhookService interface.
@@ -43,8 +46,14 @@ public class WebhookServiceImpl implements WebhookService {
 
     private final WebhookConfigRepository webhookConfigRepository;
     private final WebhookDeliveryRepository deliveryRepository;
-    private final WebhookClient webhookClient;
-    private final ObjectMapper objectMapper;
+    private final WebhookDeliveryBatchRepository deliveryBatchRepository;
+    private final WebhookDispatcher webhookDispatcher;
+    private final WebhookFanOutPlanner fanOutPlanner;
+    private final WebhookRoutingTable routingTable;
+    private final WebhookDeliveryJournal deliveryJournal;
+    private final WebhookStatsAggregator statsAggregator;
+    private final WebhookRetryTimingWheel retryTimingWheel;
+    private final HmacSigner hmacSigner;
 
     @Value("${webhook.retry.max-attempts:5}")
     private int maxRetryAttempts;
@@ -55,16 +64,51 @@ public class WebhookServiceImpl implements WebhookService {
     @Value("${webhook.signature.algorithm:HmacSHA256}")
     private String signatureAlgorithm;
 
+    @Value("${webhook.retry.batch-size:50}")
+    private int retryBatchSize;
+
+    @Value("${webhook.retry.max-claims-per-run:1000}")
+    private int maxClaimsPerRun;
+
+    @Value("${webhook.retry.lease-seconds:300}")
+    private int leaseSeconds;
+
+    @Value("${webhook.retry.sweep-grace-seconds:30}")
+    private int sweepGraceSeconds;
+
+    @Value("${webhook.journal.flush-interval-ms:200}")
+    private long journalFlushIntervalMs;
+
     @Autowired
     public WebhookServiceImpl(
             WebhookConfigRepository webhookConfigRepository,
             WebhookDeliveryRepository deliveryRepository,
-            WebhookClient webhookClient,
-            ObjectMapper objectMapper) {
+            WebhookDeliveryBatchRepository deliveryBatchRepository,
+            WebhookDispatcher webhookDispatcher,
+            WebhookFanOutPlanner fanOutPlanner,
+            WebhookRoutingTable routingTable,
+            WebhookDeliveryJournal deliveryJournal,
+            WebhookStatsAggregator statsAggregator,
+            WebhookRetryTimingWheel retryTimingWheel,
+            HmacSigner hmacSigner) {
         this.webhookConfigRepository = webhookConfigRepository;
         this.deliveryRepository = deliveryRepository;
-        this.webhookClient = webhookClient;
-        this.objectMapper = objectMapper;
+        this.deliveryBatchRepository = deliveryBatchRepository;
+        this.webhookDispatcher = webhookDispatcher;
+        this.fanOutPlanner = fanOutPlanner;
+        this.routingTable = routingTable;
+        this.deliveryJournal = deliveryJournal;
+        this.statsAggregator = statsAggregator;
+        this.retryTimingWheel = retryTimingWheel;
+        this.hmacSigner = hmacSigner;
+    }
+
+    /**
+     * Registers this service as the handler of retries fired by the timing wheel.
+     */
+    @PostConstruct
+    public void init() {
+        retryTimingWheel.setExpiryHandler(this::processDueRetries);
     }
 
     @Override
@@ -77,61 +121,122 @@ public class WebhookServiceImpl implements WebhookService {
         logger.info("Sending {} webhook notifications for transaction: {}", 
                 eventType, transaction.getId());
 
-        List<WebhookDelivery> deliveries = new ArrayList<>();
+        List<WebhookConfig> subscribers = fanOutPlanner.resolveSubscribers(transaction, eventType);
 
-        // First, check if the transaction has a specific webhook URL configured
-        if (transaction.hasWebhookEnabled()) {
-            Map<String, Object> payload = createTransactionEventPayload(
-                    transaction, eventType, additionalData);
-
-            // Create a synthetic webhook config for this specific URL
-            WebhookConfig config = webhookConfigRepository.findByCallbackUrl(transaction.getWebhookUrl())
-                    .orElseGet(() -> {
-                        // If not found, create a temporary config (not saved to DB)
-                        return WebhookConfig.builder()
-                                .id(UUID.randomUUID())
-                                .callbackUrl(transaction.getWebhookUrl())
-                                .securityToken(transaction.getWebhookSecurityToken())
-                                .originSystem(transaction.getOriginSystem())
-                                .isActive(true)
-                                .build();
-                    });
-
-            WebhookDelivery delivery = createWebhookDelivery(
-                    config.getId(), transaction.getId(), eventType, payload);
-            
-            delivery = deliveryRepository.save(delivery);
+        if (subscribers.isEmpty()) {
+            return List.of();
+        }
+
+        // Build and serialize the event once; every subscriber gets the same immutable payload
+        Map<String, Object> payload = Collections.unmodifiableMap(
+                createTransactionEventPayload(transaction, eventType, additionalData));
+        byte[] serializedPayload = webhookDispatcher.serializePayload(payload);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<WebhookDelivery> deliveries = new ArrayList<>(subscribers.size());
+        List<WebhookDelivery> persistent = new ArrayList<>(subscribers.size());
+        Map<UUID, WebhookConfig> configs = new HashMap<>();
+
+        for (WebhookConfig config : subscribers) {
+            WebhookDelivery delivery = createWebhookDelivery(config.getId(), transaction.getId(), eventType, payload);
+            if (config.isTemporary()) {
+                // Temporary configurations have no row in webhooks, so their deliveries are best effort
+                delivery.setId(UUID.randomUUID());
+                delivery.setCreatedAt(now);
+                delivery.setUpdatedAt(now);
+            } else {
+                persistent.add(delivery);
+            }
             deliveries.add(delivery);
-            
-            // Send asynchronously
-            sendWebhookAsync(delivery);
+            configs.put(config.getId(), config);
         }
 
-        // Then, find all active webhooks configured for this event type
-        List<WebhookConfig> configs = webhookConfigRepository
-                .findActiveWebhooksByEventTypeGeneric(eventType)
-                .stream()
-                .filter(config -> config.getOriginSystem().equals(transaction.getOriginSystem()))
-                .collect(Collectors.toList());
-
-        for (WebhookConfig config : configs) {
-            // Skip if this is the same as the transaction-specific webhook
-            if (transaction.hasWebhookEnabled() && 
-                config.getCallbackUrl().equals(transaction.getWebhookUrl())) {
+        // Insert all persistent deliveries as one JDBC batch; new entities are persisted in place
+        deliveryRepository.saveAll(persistent);
+
+        // Send asynchronously once the transaction commits
+        List<CompletableFuture<WebhookDelivery>> dispatched =
+                webhookDispatcher.dispatchAll(deliveries, configs, serializedPayload);
+
+        for (int i = 0; i < deliveries.size(); i++) {
+            handleDispatchFailure(dispatched.get(i), deliveries.get(i));
+        }
+
+        return deliveries;
+    }
+
+    @Override
+    @Transactional
+    public List<WebhookDelivery> sendTransactionEventNotifications(
+            List<Transaction> transactions,
+            WebhookEventType eventType,
+            Map<String, Object> additionalData) {
+
+        Map<UUID, List<WebhookConfig>> subscribers = fanOutPlanner.resolveSubscribers(transactions, eventType);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<WebhookDelivery> deliveries = new ArrayList<>();
+        List<NewDelivery> rows = new ArrayList<>();
+        Map<UUID, WebhookConfig> configs = new HashMap<>();
+        Map<UUID, byte[]> payloads = new HashMap<>();
+
+        for (Transaction transaction : transactions) {
+            List<WebhookConfig> transactionSubscribers = subscribers.get(transaction.getId());
+            if (transactionSubscribers.isEmpty()) {
+                continue;
+            }
+
+            // Build and serialize each event once; its subscribers share the same payload
+            Map<String, Object> payload = Collections.unmodifiableMap(
+                    createTransactionEventPayload(transaction, eventType, additionalData));
+            byte[] serializedPayload = webhookDispatcher.serializePayload(payload);
+            if (serializedPayload == null) {
+                logger.error("Skipping {} webhook notifications for transaction {} with unserializable payload",
+                        eventType, transaction.getId());
                 continue;
             }
+            payloads.put(transaction.getId(), serializedPayload);
+            String payloadJson = new String(serializedPayload, StandardCharsets.UTF_8);
+
+            for (WebhookConfig config : transactionSubscribers) {
+                WebhookDelivery delivery = WebhookDelivery.builder()
+                        .id(UUID.randomUUID())
+                        .webhookId(config.getId())
+                        .transactionId(transaction.getId())
+                        .eventType(eventType)
+                        .deliveryStatus(WebhookDeliveryStatus.PENDING)
+                        .payload(payload)
+                        .attemptCount(0)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build();
+
+                deliveries.add(delivery);
+                configs.put(config.getId(), config);
+
+                // Temporary configurations have no row in webhooks, so their deliveries are best effort
+                if (!config.isTemporary()) {
+                    rows.add(new NewDelivery(delivery.getId(), config.getId(), transaction.getId(),
+                            eventType.name(), payloadJson));
+                }
+            }
+        }
 
-            Map<String, Object> payload = createTransactionEventPayload(
-                    transaction, eventType, additionalData);
+        if (deliveries.isEmpty()) {
+            return List.of();
+        }
 
-            WebhookDelivery delivery = createWebhookDelivery(
-                    config.getId(), transaction.getId(), eventType, payload);
-            
-            delivery = deliveryRepository.save(delivery);
-            deliveries.add(delivery);
-            
-            // Send asynchronously
-            sendWebhookAsync(delivery);
+        logger.info("Sending {} {} webhook notifications for {} transactions",
+                deliveries.size(), eventType, transactions.size());
+
+        deliveryBatchRepository.insertPendingDeliveries(rows);
+
+        // Send asynchronously once the transaction commits
+        List<CompletableFuture<WebhookDelivery>> dispatched =
+                webhookDispatcher.dispatchBatch(deliveries, configs, payloads);
+
+        for (int i = 0; i < deliveries.size(); i++) {
+            handleDispatchFailure(dispatched.get(i), deliveries.get(i));
         }
 
         return deliveries;
@@ -145,7 +250,7 @@ public class WebhookServiceImpl implements WebhookService {
             WebhookEventType eventType,
             Map<String, Object> payload) {
         
-        WebhookConfig config = webhookConfigRepository.findById(webhookId)
+        WebhookConfig config = routingTable.findById(webhookId)
                 .orElseThrow(() -> new WebhookNotFoundException("Webhook not found with ID: " + webhookId));
 
         if (!config.isActive()) {
@@ -156,14 +261,13 @@ public class WebhookServiceImpl implements WebhookService {
         WebhookDelivery delivery = createWebhookDelivery(webhookId, transactionId, eventType, payload);
         delivery = deliveryRepository.save(delivery);
 
-        // Send asynchronously
-        sendWebhookAsync(delivery);
+        // Send asynchronously once the transaction commits
+        dispatchDelivery(delivery, config);
 
         return delivery;
     }
 
     @Override
-    @Transactional
     public WebhookDelivery sendTestEvent(UUID webhookId) {
         WebhookConfig config = webhookConfigRepository.findById(webhookId)
                 .orElseThrow(() -> new WebhookNotFoundException("Webhook not found with ID: " + webhookId));
@@ -178,15 +282,9 @@ public class WebhookServiceImpl implements WebhookService {
         
         delivery = deliveryRepository.save(delivery);
 
-        // For test events, send synchronously so we can return the result immediately
-        try {
-            delivery = sendWebhookDelivery(delivery);
-        } catch (Exception e) {
-            logger.error("Error sending test webhook: {}", e.getMessage());
-            delivery = handleFailedDelivery(delivery, e);
-        }
-
-        return delivery;
+        // For test events, wait for the result so we can return it immediately.
+        // Not transactional, so the delivery row is committed before dispatch.
+        return dispatchDelivery(delivery, config).join();
     }
 
     @Override
@@ -215,29 +313,84 @@ public class WebhookServiceImpl implements WebhookService {
         delivery.setNextRetryAt(LocalDateTime.now());
         delivery = deliveryRepository.save(delivery);
 
-        // Trigger delivery asynchronously
-        sendWebhookAsync(delivery);
+        // Trigger delivery asynchronously once the transaction commits
+        sendWebhookDelivery(delivery);
 
         return delivery;
     }
 
     @Override
-    @Transactional
     public int processScheduledRetries() {
-        List<WebhookDelivery> dueDeliveries = deliveryRepository.findDeliveriesDueForRetry(LocalDateTime.now());
-        
-        logger.info("Processing {} scheduled webhook retries", dueDeliveries.size());
-        
+        String nodeId = retryTimingWheel.getNodeId();
         int processed = 0;
-        
-        for (WebhookDelivery delivery : dueDeliveries) {
-            sendWebhookAsync(delivery);
-            processed++;
-        }
-        
+        List<WebhookDelivery> claimed;
+
+        // Claim due deliveries batch by batch; each claim commits on its own,
+        // and rows claimed by other nodes are skipped
+        do {
+            LocalDateTime now = LocalDateTime.now();
+
+            // When the timing wheel is active, only sweep up deadlines it has missed
+            LocalDateTime dueBefore = retryTimingWheel.isEnabled() 
+                    ? now.minusSeconds(sweepGraceSeconds) 
+                    : now;
+
+            claimed = deliveryRepository.claimDeliveriesDueForRetry(
+                    dueBefore, now, nodeId, now.plusSeconds(leaseSeconds), retryBatchSize);
+
+            dispatchClaimed(claimed);
+            processed += claimed.size();
+        } while (claimed.size() == retryBatchSize && processed < maxClaimsPerRun);
+
+        logger.info("Claimed {} scheduled webhook retries on node {}", processed, nodeId);
+
         return processed;
     }
 
+    /**
+     * Claims and dispatches deliveries whose retry deadline has fired in the timing wheel.
+     *
+     * @param deliveryIds The IDs of the due deliveries
+     */
+    public void processDueRetries(List<UUID> deliveryIds) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<WebhookDelivery> claimed = deliveryRepository.claimDeliveriesById(
+                deliveryIds, now.plusSeconds(1), now, retryTimingWheel.getNodeId(), now.plusSeconds(leaseSeconds));
+
+        logger.debug("Timing wheel fired {} webhook retries, {} claimed", deliveryIds.size(), claimed.size());
+
+        if (claimed.size() < deliveryIds.size()) {
+            rearmUnflushedRetries(deliveryIds, claimed, now);
+        }
+
+        dispatchClaimed(claimed);
+    }
+
+    /**
+     * Re-arms fired retries that could not be claimed only because their
+     * RETRY_SCHEDULED state is still in the write-behind journal, so they fire
+     * again after the next flush instead of waiting for the cron sweep.
+     */
+    private void rearmUnflushedRetries(List<UUID> deliveryIds, List<WebhookDelivery> claimed, LocalDateTime now) {
+        Set<UUID> claimedIds = new HashSet<>();
+        claimed.forEach(delivery -> claimedIds.add(delivery.getId()));
+
+        LocalDateTime rearmAt = now.plus(journalFlushIntervalMs, ChronoUnit.MILLIS);
+        int rearmed = 0;
+
+        for (UUID deliveryId : deliveryIds) {
+            if (!claimedIds.contains(deliveryId) && deliveryJournal.hasUnflushedRetry(deliveryId)) {
+                retryTimingWheel.schedule(deliveryId, rearmAt);
+                rearmed++;
+            }
+        }
+
+        if (rearmed > 0) {
+            logger.debug("Re-armed {} webhook retries whose state is not flushed yet", rearmed);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<WebhookDelivery> getDeliveriesByWebhookId(UUID webhookId) {
@@ -275,6 +428,7 @@ public class WebhookServiceImpl implements WebhookService {
         
         stats.put("successRate", Math.round(successRate * 100) / 100.0); // Round to 2 decimal places
         stats.put("totalDeliveries", totalDeliveries);
+        stats.put("journal", deliveryJournal.getStats());
         
         return stats;
     }
@@ -298,12 +452,15 @@ public class WebhookServiceImpl implements WebhookService {
         } else {
             // Schedule next retry
             int delaySeconds = computeNextRetryDelay(delivery);
-            delivery.scheduleRetry(LocalDateTime.now().plusSeconds(delaySeconds));
+            delivery.scheduleRetry(LocalDateTime.now().plusSeconds(delaySeconds), retryTimingWheel.getNodeId());
             
             logger.info("Scheduled retry for webhook delivery: {}, next attempt in {} seconds", 
                     delivery.getId(), delaySeconds);
             
-            return deliveryRepository.save(delivery);
+            deliveryJournal.record(delivery);
+            retryTimingWheel.schedule(delivery);
+            
+            return delivery;
         }
     }
 
@@ -330,21 +487,12 @@ public class WebhookServiceImpl implements WebhookService {
     public WebhookDelivery markAsPermanentlyFailed(WebhookDelivery delivery) {
         delivery.setDeliveryStatus(WebhookDeliveryStatus.PERMANENTLY_FAILED);
         delivery.setNextRetryAt(null);
+        delivery.releaseLease();
         
-        WebhookDelivery savedDelivery = deliveryRepository.save(delivery);
+        WebhookDelivery savedDelivery = deliveryJournal.record(delivery);
         
         // Update webhook stats
-        try {
-            WebhookConfig config = webhookConfigRepository.findById(delivery.getWebhookId())
-                    .orElse(null);
-            
-            if (config != null) {
-                config.recordFailure();
-                webhookConfigRepository.save(config);
-            }
-        } catch (Exception e) {
-            logger.error("Error updating webhook stats after permanent failure: {}", e.getMessage());
-        }
+        statsAggregator.recordFailure(delivery.getWebhookId());
         
         return savedDelivery;
     }
@@ -352,12 +500,8 @@ public class WebhookServiceImpl implements WebhookService {
     @Override
     public String generateSignature(String payload, String secret) {
         try {
-            Mac hmac = Mac.getInstance(signatureAlgorithm);
-            SecretKeySpec secretKey = new SecretKeySpec(
-                    secret.getBytes(StandardCharsets.UTF_8), signatureAlgorithm);
-            hmac.init(secretKey);
-            
-            byte[] hash = hmac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            byte[] hash = hmacSigner.sign(
+                    payload.getBytes(StandardCharsets.UTF_8), secret, signatureAlgorithm);
             return Base64.getEncoder().encodeToString(hash);
         } catch (Exception e) {
             logger.error("Error generating webhook signature: {}", e.getMessage());
@@ -433,78 +577,81 @@ public class WebhookServiceImpl implements WebhookService {
     }
 
     /**
-     * Asynchronously sends a webhook notification.
+     * Dispatches a batch of claimed deliveries.
      */
-    @Async("webhookExecutor")
-    protected void sendWebhookAsync(WebhookDelivery delivery) {
-        try {
-            sendWebhookDelivery(delivery);
-        } catch (Exception e) {
-            logger.error("Error in async webhook delivery: {}", e.getMessage());
-            handleFailedDelivery(delivery, e);
+    private void dispatchClaimed(List<WebhookDelivery> claimed) {
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, WebhookConfig> configs = findConfigs(claimed);
+
+        for (WebhookDelivery delivery : claimed) {
+            WebhookConfig config = configs.get(delivery.getWebhookId());
+
+            if (config == null) {
+                handleFailedDelivery(delivery, 
+                        new WebhookNotFoundException("Webhook not found: " + delivery.getWebhookId()));
+            } else {
+                dispatchDelivery(delivery, config);
+            }
         }
     }
 
     /**
-     * Sends a webhook delivery and updates its status.
+     * Looks up the webhook configurations of a batch of deliveries in the routing table.
      */
-    @Transactional
-    protected WebhookDelivery sendWebhookDelivery(WebhookDelivery delivery) throws Exception {
-        WebhookConfig config = webhookConfigRepository.findById(delivery.getWebhookId())
-                .orElseThrow(() -> new WebhookNotFoundException("Webhook not found: " + delivery.getWebhookId()));
+    private Map<UUID, WebhookConfig> findConfigs(List<WebhookDelivery> deliveries) {
+        Map<UUID, WebhookConfig> configs = new HashMap<>();
 
-        logger.info("Sending webhook delivery: {}, event: {}, attempt: {}", 
-                delivery.getId(), delivery.getEventType(), delivery.getAttemptCount() + 1);
+        for (WebhookDelivery delivery : deliveries) {
+            routingTable.findById(delivery.getWebhookId())
+                    .ifPresent(config -> configs.put(config.getId(), config));
+        }
 
-        // Update status to PROCESSING
-        delivery.setDeliveryStatus(WebhookDeliveryStatus.PROCESSING);
-        delivery.recordAttempt(WebhookDeliveryStatus.PROCESSING, null, null);
-        delivery = deliveryRepository.save(delivery);
+        return configs;
+    }
 
-        try {
-            // Serialize payload to JSON
-            String payloadJson = objectMapper.writeValueAsString(delivery.getPayload());
-            
-            // Generate signature
-            String signature = generateSignature(payloadJson, config.getSecurityToken());
-            
-            // Send the webhook
-            Map<String, Object> headers = new HashMap<>();
-            headers.put("X-Webhook-Signature", signature);
-            headers.put("X-Webhook-ID", delivery.getWebhookId().toString());
-            headers.put("X-Delivery-ID", delivery.getId().toString());
-            headers.put("X-Event-Type", delivery.getEventType().toString());
-            headers.put("Content-Type", "application/json");
-            
-            WebhookClient.WebhookResponse response = webhookClient.sendWebhook(
-                    config.getCallbackUrl(), 
-                    payloadJson, 
-                    headers);
-            
-            // Update delivery with response
-            delivery.recordAttempt(
-                    WebhookDeliveryStatus.DELIVERED, 
-                    response.getStatusCode(), 
-                    response.getBody());
-            
-            delivery = deliveryRepository.save(delivery);
-            
-            // Update webhook stats
-            config.recordSuccess();
-            webhookConfigRepository.save(config);
-            
-            logger.info("Webhook delivery successful: {}, status code: {}", 
-                    delivery.getId(), response.getStatusCode());
-            
-            return delivery;
-        } catch (Exception e) {
-            logger.error("Error sending webhook: {}", e.getMessage());
-            
-            // Handle failure (may schedule retry)
-            delivery = handleFailedDelivery(delivery, e);
-            
-            // Re-throw for synchronous calls (like test webhooks)
-            throw e;
+    /**
+     * Resolves the webhook configuration of a delivery and dispatches it.
+     */
+    protected CompletableFuture<WebhookDelivery> sendWebhookDelivery(WebhookDelivery delivery) {
+        WebhookConfig config = routingTable.findById(delivery.getWebhookId()).orElse(null);
+
+        if (config == null) {
+            WebhookNotFoundException error = 
+                    new WebhookNotFoundException("Webhook not found: " + delivery.getWebhookId());
+            return CompletableFuture.completedFuture(handleFailedDelivery(delivery, error));
         }
+
+        return dispatchDelivery(delivery, config);
+    }
+
+    /**
+     * Hands a webhook delivery to the non-blocking dispatcher.
+     * Failures are routed through handleFailedDelivery once the subscriber has answered.
+     */
+    protected CompletableFuture<WebhookDelivery> dispatchDelivery(WebhookDelivery delivery, WebhookConfig config) {
+        return handleDispatchFailure(webhookDispatcher.dispatch(delivery, config), delivery);
+    }
+
+    /**
+     * Routes the failure of a dispatched delivery through handleFailedDelivery.
+     */
+    private CompletableFuture<WebhookDelivery> handleDispatchFailure(
+            CompletableFuture<WebhookDelivery> dispatched, WebhookDelivery delivery) {
+        return dispatched
+                .exceptionally(error -> {
+                    if (WebhookDispatcher.isAborted(error)) {
+                        // The enclosing transaction rolled back, nothing to deliver
+                        return delivery;
+                    }
+
+                    Throwable cause = WebhookDispatcher.unwrap(error);
+                    logger.error("Error sending webhook: {}", cause.getMessage());
+
+                    // Handle failure (may schedule retry)
+                    return handleFailedDelivery(delivery, cause);
+                });
     }
 }
@@ -0,0 +1,188 @@
+package com.company.transactionrecovery.domain.service.webhook;
+
+import com.company.transactionrecovery.domain.repository.WebhookStatsBatchRepository;
+import com.company.transactionrecovery.domain.repository.WebhookStatsBatchRepository.StatsDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory aggregator for the delivery counters of webhook configurations.
+ * Deliveries only bump striped counters keyed by webhook ID, so concurrent
+ * deliveries to the same endpoint never contend on its webhooks row. The
+ * accumulated deltas are added to the table periodically in one batched UPDATE.
+ * Only webhooks in the routing table are counted: temporary configurations of
+ * unregistered URLs have no row to update, and the counters of a deleted
+ * webhook are dropped with it.
+ */
+@Component
+public class WebhookStatsAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookStatsAggregator.class);
+
+    private final WebhookStatsBatchRepository statsRepository;
+    private final WebhookRoutingTable routingTable;
+
+    @Value("${webhook.stats.batch-size:500}")
+    private int batchSize;
+
+    private final Map<UUID, Counters> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WebhookStatsAggregator(
+            WebhookStatsBatchRepository statsRepository,
+            WebhookRoutingTable routingTable) {
+        this.statsRepository = statsRepository;
+        this.routingTable = routingTable;
+    }
+
+    /**
+     * Records a successful delivery to a webhook.
+     *
+     * @param webhookId The webhook configuration ID
+     */
+    public void recordSuccess(UUID webhookId) {
+        if (!isRegistered(webhookId)) {
+            return;
+        }
+
+        Counters c = getCounters(webhookId);
+        c.successes.increment();
+        c.lastSuccessAt.accumulate(System.currentTimeMillis());
+    }
+
+    /**
+     * Records a failed delivery to a webhook.
+     *
+     * @param webhookId The webhook configuration ID
+     */
+    public void recordFailure(UUID webhookId) {
+        if (!isRegistered(webhookId)) {
+            return;
+        }
+
+        Counters c = getCounters(webhookId);
+        c.failures.increment();
+        c.lastFailureAt.accumulate(System.currentTimeMillis());
+    }
+
+    /**
+     * Adds the accumulated counters to the webhooks table.
+     * Deltas of a failed batch are added back and retried on the next flush.
+     */
+    @Scheduled(fixedDelayString = "${webhook.stats.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        List<StatsDelta> deltas = new ArrayList<>();
+
+        for (Map.Entry<UUID, Counters> entry : counters.entrySet()) {
+            StatsDelta delta = entry.getValue().drain(entry.getKey());
+            if (delta != null) {
+                deltas.add(delta);
+            }
+        }
+
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            List<StatsDelta> batch = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+
+            try {
+                statsRepository.incrementStats(batch);
+            } catch (Exception e) {
+                logger.error("Error flushing stats for {} webhooks, will retry: {}", batch.size(), e.getMessage());
+                batch.forEach(delta -> getCounters(delta.getWebhookId()).restore(delta));
+            }
+        }
+
+        if (!deltas.isEmpty()) {
+            logger.debug("Flushed delivery stats for {} webhooks", deltas.size());
+        }
+    }
+
+    /**
+     * Flushes any accumulated counters on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Drops the counters of a webhook, e.g. after the webhook is deleted.
+     *
+     * @param webhookId The webhook configuration ID
+     */
+    public void remove(UUID webhookId) {
+        counters.remove(webhookId);
+    }
+
+    private boolean isRegistered(UUID webhookId) {
+        return webhookId != null && routingTable.findById(webhookId).isPresent();
+    }
+
+    private Counters getCounters(UUID webhookId) {
+        return counters.computeIfAbsent(webhookId, id -> new Counters());
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return epochMillis > 0
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault())
+                : null;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+
+    /**
+     * Counters accumulated for a single webhook since the last flush.
+     */
+    private static class Counters {
+
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAccumulator lastSuccessAt = new LongAccumulator(Long::max, 0);
+        private final LongAccumulator lastFailureAt = new LongAccumulator(Long::max, 0);
+
+        /**
+         * Takes the accumulated counters and resets them.
+         *
+         * @return The delta to apply, or null if nothing was recorded
+         */
+        StatsDelta drain(UUID webhookId) {
+            long successCount = successes.sumThenReset();
+            long failureCount = failures.sumThenReset();
+
+            if (successCount == 0 && failureCount == 0) {
+                return null;
+            }
+
+            return new StatsDelta(webhookId, successCount, failureCount,
+                    toLocalDateTime(lastSuccessAt.getThenReset()),
+                    toLocalDateTime(lastFailureAt.getThenReset()));
+        }
+
+        /**
+         * Adds back a delta that could not be written.
+         */
+        void restore(StatsDelta delta) {
+            successes.add(delta.getSuccesses());
+            failures.add(delta.getFailures());
+            lastSuccessAt.accumulate(toEpochMillis(delta.getLastSuccessAt()));
+            lastFailureAt.accumulate(toEpochMillis(delta.getLastFailureAt()));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- Flyway migration script for payload fingerprints
+-- Version: 10
+-- Description: Stores a canonical hash of each transaction's payload, so
+-- duplicate requests can be recognized without comparing payloads field by field
+
+-- Add the payload fingerprint to transactions; existing rows keep NULL and use the field comparison
+ALTER TABLE transactions ADD COLUMN payload_fingerprint VARCHAR(64);
@@ -0,0 +1,12 @@
+-- Flyway migration script for outbox claims
+-- Version: 11
+-- Description: Lets the outbox relay claim a batch of events in a short
+-- transaction and send it to Kafka without holding a database transaction open
+
+-- Add the relay that claimed each event and until when the claim holds
+ALTER TABLE transaction_outbox ADD COLUMN claimed_by VARCHAR(255);
+ALTER TABLE transaction_outbox ADD COLUMN claimed_until TIMESTAMP;
+
+-- Live claims are looked up on every relay run
+CREATE INDEX idx_transaction_outbox_claimed_until ON transaction_outbox(claimed_until)
+    WHERE claimed_until IS NOT NULL;
@@ -0,0 +1,8 @@
+-- Flyway migration script for reconciliation partition claims
+-- Version: 12
+-- Description: Lets the reconciliation engines of several nodes share a run,
+-- each partition being walked by the node that claimed it
+
+-- Add the node that claimed each partition and until when the claim holds
+ALTER TABLE reconciliation_checkpoints ADD COLUMN claimed_by VARCHAR(255);
+ALTER TABLE reconciliation_checkpoints ADD COLUMN claimed_until TIMESTAMP;
@@ -0,0 +1,16 @@
+-- Flyway migration script for webhook delivery leases
+-- Version: 3
+-- Description: Adds lease columns used to claim webhook deliveries for retry
+
+-- Add the node that currently holds the delivery and when its claim expires
+ALTER TABLE webhook_deliveries
+    ADD COLUMN lease_owner VARCHAR(100),
+    ADD COLUMN lease_expires_at TIMESTAMP;
+
+-- Create index for claiming deliveries that are due for retry
+CREATE INDEX idx_webhook_deliveries_retry_claim ON webhook_deliveries(next_retry_at)
+WHERE delivery_status = 'RETRY_SCHEDULED';
+
+-- Create index for reclaiming deliveries whose lease has expired
+CREATE INDEX idx_webhook_deliveries_lease ON webhook_deliveries(lease_expires_at)
+WHERE delivery_status = 'PROCESSING';
@@ -0,0 +1,10 @@
+-- Flyway migration script for webhook statistics
+-- Version: 4
+-- Description: Drops the per-delivery webhook stats trigger; counters are now
+-- aggregated in memory by the application and flushed in batches
+
+-- Drop trigger that updated the webhooks row on every delivery status change
+DROP TRIGGER IF EXISTS trg_update_webhook_stats ON webhook_deliveries;
+
+-- Drop the trigger function
+DROP FUNCTION IF EXISTS fn_update_webhook_stats();
@@ -0,0 +1,12 @@
+-- Flyway migration script for webhook subscriber lookup
+-- Version: 5
+-- Description: Adds indexes used to resolve the active subscribers of an
+-- (origin system, event type) pair in a single query
+
+-- Create index for active webhooks by origin system
+CREATE INDEX idx_webhooks_active_origin_system ON webhooks(origin_system)
+WHERE is_active = TRUE;
+
+-- Create index for containment queries on the subscribed event types
+CREATE INDEX idx_webhooks_events ON webhooks USING GIN (events jsonb_path_ops)
+WHERE is_active = TRUE;
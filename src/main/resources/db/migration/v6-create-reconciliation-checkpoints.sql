@@ -0,0 +1,27 @@
+-- Flyway migration script for resumable reconciliation
+-- Version: 6
+-- Description: Adds the checkpoint table of the streaming reconciliation engine
+-- and an index for walking unresolved transactions in ID order
+
+-- Create the reconciliation_checkpoints table, one row per partition of a run
+CREATE TABLE reconciliation_checkpoints (
+    run_id UUID NOT NULL,
+    partition_index INTEGER NOT NULL,
+    partition_count INTEGER NOT NULL,
+    last_transaction_id UUID,
+    processed_count BIGINT NOT NULL DEFAULT 0,
+    reconciled_count BIGINT NOT NULL DEFAULT 0,
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    is_completed BOOLEAN NOT NULL DEFAULT FALSE,
+    started_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (run_id, partition_index)
+);
+
+-- Create index for finding unfinished runs
+CREATE INDEX idx_reconciliation_checkpoints_incomplete ON reconciliation_checkpoints(started_at)
+WHERE is_completed = FALSE;
+
+-- Create index for keyset iteration over transactions in non-terminal states
+CREATE INDEX idx_transactions_unresolved_id ON transactions(id)
+WHERE status IN ('PENDING', 'PROCESSING', 'TIMEOUT', 'INCONSISTENT');
@@ -0,0 +1,32 @@
+-- Flyway migration script for set-based status changes
+-- Version: 7
+-- Description: Lets set-based status updates that write their own history rows
+-- skip the status history trigger for the current database transaction
+
+-- Recreate the status history function with a per-transaction bypass
+CREATE OR REPLACE FUNCTION fn_transaction_status_history()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF (OLD.status IS DISTINCT FROM NEW.status)
+       AND COALESCE(current_setting('transaction_recovery.skip_status_history', TRUE), '') <> 'on' THEN
+        INSERT INTO transaction_history (
+            transaction_id,
+            previous_status,
+            new_status,
+            changed_at,
+            reason,
+            changed_by,
+            is_automatic
+        ) VALUES (
+            NEW.id,
+            OLD.status,
+            NEW.status,
+            CURRENT_TIMESTAMP,
+            'Automatic status change trigger',
+            'SYSTEM_TRIGGER',
+            TRUE
+        );
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,48 @@
+-- Flyway migration script for incremental anomaly detection
+-- Version: 8
+-- Description: Keeps a per-transaction count of history entries up to date and
+-- indexes the counters used to detect transactions with excessive retries or
+-- state changes
+
+-- Add the state change counter to transactions
+ALTER TABLE transactions ADD COLUMN state_change_count INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill the counter from the existing history
+UPDATE transactions t
+SET state_change_count = h.history_count
+FROM (
+    SELECT transaction_id, COUNT(*) AS history_count
+    FROM transaction_history
+    GROUP BY transaction_id
+) h
+WHERE t.id = h.transaction_id;
+
+-- Create a function to count new history entries, once per statement
+CREATE OR REPLACE FUNCTION fn_transaction_state_change_count()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE transactions t
+    SET state_change_count = t.state_change_count + h.history_count
+    FROM (
+        SELECT transaction_id, COUNT(*) AS history_count
+        FROM inserted_history
+        GROUP BY transaction_id
+    ) h
+    WHERE t.id = h.transaction_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create trigger for counting history entries
+CREATE TRIGGER trg_transaction_state_change_count
+AFTER INSERT ON transaction_history
+REFERENCING NEW TABLE AS inserted_history
+FOR EACH STATEMENT
+EXECUTE FUNCTION fn_transaction_state_change_count();
+
+-- Create index for retried transactions that are not in a terminal state
+CREATE INDEX idx_transactions_unresolved_attempt_count ON transactions(attempt_count)
+WHERE status NOT IN ('COMPLETED', 'FAILED');
+
+-- Create index for transactions by number of state changes
+CREATE INDEX idx_transactions_state_change_count ON transactions(state_change_count);
@@ -0,0 +1,13 @@
+-- Flyway migration script for the transaction event outbox
+-- Version: 9
+-- Description: Adds the outbox table that transaction events are written to in
+-- the same database transaction as the change they describe
+
+-- Create the transaction_outbox table, drained in ID order by the outbox relay
+CREATE TABLE transaction_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255),
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -1,5 +1,7 @@
 package com.exquy.webhook.api.controller;
 
+import com.company.transactionrecovery.domain.service.webhook.WebhookBulkheadRegistry;
+import com.company.transactionrecovery.domain.service.webhook.WebhookCircuitBreakerRegistry;
 import com.exquy.webhook.api.dto.TransactionResponse;
 import com.exquy.webhook.domain.model.Transaction;
 import com.exquy.webhook.service.monitor.AnomalyDetectionService;
@@ -17,6 +19,7 @@ import org.springframework.transaction.TransactionStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -35,14 +38,20 @@ public class AdminController {
     private final com.exquy.webhook.service.transaction.TransactionService transactionService;
     private final com.exquy.webhook.service.monitor.TransactionMonitorService monitorService;
     private final com.exquy.webhook.service.monitor.AnomalyDetectionService anomalyDetectionService;
+    private final WebhookBulkheadRegistry bulkheadRegistry;
+    private final WebhookCircuitBreakerRegistry circuitBreakerRegistry;
 
     @Autowired
     public AdminController(com.exquy.webhook.service.transaction.TransactionService transactionService,
                            com.exquy.webhook.service.monitor.TransactionMonitorService monitorService,
-                           com.exquy.webhook.service.monitor.AnomalyDetectionService anomalyDetectionService) {
+                           com.exquy.webhook.service.monitor.AnomalyDetectionService anomalyDetectionService,
+                           WebhookBulkheadRegistry bulkheadRegistry,
+                           WebhookCircuitBreakerRegistry circuitBreakerRegistry) {
         this.transactionService = transactionService;
         this.monitorService = monitorService;
         this.anomalyDetectionService = anomalyDetectionService;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
     }
 
     /**
@@ -91,11 +100,43 @@ public class AdminController {
     public ResponseEntity<Map<String, Object>> getDashboardMetrics() {
         logger.info("Admin requesting dashboard metrics");
         
-        Map<String, Object> metrics = monitorService.getSystemMetrics();
+        Map<String, Object> metrics = new HashMap<>(monitorService.getSystemMetrics());
+        
+        // Webhook endpoints whose circuit breaker is currently open or half-open
+        metrics.put("webhook_open_circuits", circuitBreakerRegistry.getOpenCircuitSnapshots());
         
         return new ResponseEntity<>(metrics, HttpStatus.OK);
     }
 
+    /**
+     * Gets the current concurrency limit, in-flight count and queue depth
+     * of each webhook endpoint's bulkhead.
+     *
+     * @return List of bulkhead snapshots, most backed-up endpoints first
+     */
+    @GetMapping("/webhooks/bulkheads")
+    public ResponseEntity<List<Map<String, Object>>> getWebhookBulkheads() {
+        logger.info("Admin requesting webhook bulkhead state");
+        
+        List<Map<String, Object>> bulkheads = bulkheadRegistry.getBulkheadSnapshots();
+        
+        return new ResponseEntity<>(bulkheads, HttpStatus.OK);
+    }
+
+    /**
+     * Gets the circuit breaker state of each webhook endpoint.
+     *
+     * @return List of circuit breaker snapshots
+     */
+    @GetMapping("/webhooks/circuit-breakers")
+    public ResponseEntity<List<Map<String, Object>>> getWebhookCircuitBreakers() {
+        logger.info("Admin requesting webhook circuit breaker state");
+        
+        List<Map<String, Object>> breakers = circuitBreakerRegistry.getCircuitSnapshots();
+        
+        return new ResponseEntity<>(breakers, HttpStatus.OK);
+    }
+
     /**
      * Gets a list of transactions that are currently in an anomalous state.
      *
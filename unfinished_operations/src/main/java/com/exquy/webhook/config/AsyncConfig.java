@@ -7,18 +7,28 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Configuration class for asynchronous task execution.
  * Configures thread pools and exception handlers for async operations
  * such as webhook delivery and transaction monitoring.
+ * With async.virtual-threads.enabled (the virtual-threads profile, Java 21+)
+ * every executor starts a virtual thread per task instead of using a bounded
+ * pool and queue; concurrency is then bounded by semaphores rather than by
+ * queue capacity and rejection policies.
  */
 @Configuration
 @EnableAsync
@@ -26,6 +36,15 @@ public class AsyncConfig implements AsyncConfigurer {
 
     private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
 
+    @Value("${async.virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${async.max-concurrency:200}")
+    private int maxConcurrency;
+
+    @Value("${async.monitor.max-concurrency:50}")
+    private int monitorMaxConcurrency;
+
     @Value("${async.core-pool-size:5}")
     private int corePoolSize;
 
@@ -44,6 +63,15 @@ public class AsyncConfig implements AsyncConfigurer {
     @Value("${async.webhook.queue-capacity:50}")
     private int webhookQueueCapacity;
 
+    @Value("${async.webhook.overflow-capacity:1000}")
+    private int webhookOverflowCapacity;
+
+    @Value("${async.consumer.pool-size:128}")
+    private int consumerPoolSize;
+
+    @Value("${async.consumer.queue-capacity:1000}")
+    private int consumerQueueCapacity;
+
     @Value("${async.monitor.core-pool-size:2}")
     private int monitorCorePoolSize;
 
@@ -53,12 +81,19 @@ public class AsyncConfig implements AsyncConfigurer {
     @Value("${async.monitor.queue-capacity:10}")
     private int monitorQueueCapacity;
 
+    @Value("${transaction.reconciliation.workers:4}")
+    private int reconciliationWorkers;
+
     /**
      * Default async executor for general purpose async tasks.
      */
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("async-task-", maxConcurrency);
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(corePoolSize);
         executor.setMaxPoolSize(maxPoolSize);
@@ -73,28 +108,63 @@ public class AsyncConfig implements AsyncConfigurer {
      * Specialized executor for webhook delivery operations.
      * This executor is tuned for I/O-bound operations with more threads
      * and a larger queue capacity.
+     * Tasks are submitted from Netty event loops and from other webhook tasks,
+     * which must never block on submission, so the virtual-thread variant is not
+     * throttled; concurrency per endpoint is bounded by the webhook bulkheads.
      */
     @Bean(name = "webhookExecutor")
     public Executor webhookExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("webhook-task-", SimpleAsyncTaskExecutor.UNBOUNDED_CONCURRENCY);
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(webhookCorePoolSize);
         executor.setMaxPoolSize(webhookMaxPoolSize);
         executor.setQueueCapacity(webhookQueueCapacity);
         executor.setThreadNamePrefix("webhook-task-");
         
-        // Use a custom rejection policy for webhooks to ensure they are not lost
-        executor.setRejectedExecutionHandler(new WebhookRejectionHandler());
+        // Use a custom rejection policy for webhooks so that overflow never runs on the caller
+        executor.setRejectedExecutionHandler(new WebhookRejectionHandler(webhookOverflowCapacity));
         
         executor.initialize();
         return executor;
     }
 
+    /**
+     * Worker pool for Kafka records processed in parallel beyond the partition count.
+     * Workers mostly wait on the database and downstream systems, so the pool is
+     * sized well above the CPU count; KeyOrderedRecordProcessor pauses the listener
+     * before the number of queued records reaches the queue capacity. That pause is
+     * also the only bound of the virtual-thread variant, since workers submit their
+     * successors.
+     */
+    @Bean(name = "consumerExecutor")
+    public Executor consumerExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("consumer-task-", SimpleAsyncTaskExecutor.UNBOUNDED_CONCURRENCY);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(consumerPoolSize);
+        executor.setMaxPoolSize(consumerPoolSize);
+        executor.setQueueCapacity(consumerQueueCapacity);
+        executor.setThreadNamePrefix("consumer-task-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
     /**
      * Specialized executor for transaction monitoring operations.
      * This executor is configured for CPU-bound operations with fewer threads.
      */
     @Bean(name = "monitorExecutor")
     public Executor monitorExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("monitor-task-", monitorMaxConcurrency);
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(monitorCorePoolSize);
         executor.setMaxPoolSize(monitorMaxPoolSize);
@@ -105,6 +175,42 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
+    /**
+     * Executor for the partition workers of the reconciliation engine.
+     * Each worker walks partitions until none is left, so the pool has one
+     * thread per worker and never queues more tasks than it has threads.
+     */
+    @Bean(name = "reconciliationExecutor")
+    public Executor reconciliationExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("reconciliation-task-", reconciliationWorkers);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(reconciliationWorkers);
+        executor.setMaxPoolSize(reconciliationWorkers);
+        executor.setThreadNamePrefix("reconciliation-task-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Creates an executor that runs each task on a new virtual thread.
+     * Once the concurrency limit is reached, submitters wait for a permit
+     * instead of queueing or rejecting the task.
+     *
+     * @param threadNamePrefix The name prefix of the virtual threads
+     * @param concurrencyLimit Maximum number of concurrent tasks, or UNBOUNDED_CONCURRENCY
+     * @return The executor
+     */
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(30000);
+        return executor;
+    }
+
     /**
      * Exception handler for async methods.
      * Logs exceptions that occur during async execution.
@@ -132,48 +238,84 @@ public class AsyncConfig implements AsyncConfigurer {
     }
 
     /**
-     * Custom rejection handler for webhook executor.
-     * Instead of rejecting tasks when the queue is full, this handler
-     * logs the rejection and puts the task into a persistent store
-     * (e.g., a database table) for later retry.
+     * Rejection handler for the webhook executor.
+     * New deliveries are spilled to the database by WebhookDispatcher before the
+     * queue fills up, so tasks only get here when the stages of deliveries already
+     * in flight overflow the queue. Those tasks are parked in a bounded overflow
+     * queue and a drainer thread resubmits them as soon as a worker frees a slot;
+     * the submitting thread (an HTTP worker, a Kafka consumer or a Netty event
+     * loop) never runs or waits for the task.
+     * Once the overflow is full as well the task is rejected: WebhookDispatcher
+     * then spills the delivery to the database as RETRY_SCHEDULED, and stages of
+     * deliveries in flight fail so their deliveries are retried. Tasks still parked at
+     * shutdown are dropped; their deliveries are PENDING, PROCESSING or
+     * RETRY_SCHEDULED in the database and are recovered from there.
      */
     private static class WebhookRejectionHandler implements RejectedExecutionHandler {
         
+        private static final long DRAIN_BACKOFF_MS = 5;
+
         private final Logger rejectionLogger = LoggerFactory.getLogger("webhook.rejection");
+
+        private final BlockingQueue<Runnable> overflow;
+        private final AtomicBoolean drainerStarted = new AtomicBoolean(false);
+        private final AtomicLong rejectedCount = new AtomicLong();
+
+        WebhookRejectionHandler(int overflowCapacity) {
+            this.overflow = new ArrayBlockingQueue<>(overflowCapacity);
+        }
         
         @Override
         public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
-            rejectionLogger.warn("Webhook task rejected, queue capacity reached. Current queue size: {}, active threads: {}",
-                    executor.getQueue().size(), executor.getActiveCount());
-            
-            if (r instanceof WebhookTask) {
-                WebhookTask task = (WebhookTask) r;
-                
-                // In a real implementation, this would persist the task to a database
-                // and schedule it for later execution
-                rejectionLogger.info("Persisting webhook task for later execution: {}", task.getDetails());
-                
-                // Temporary solution: run in the caller's thread as a fallback
-                // This is not ideal for production but ensures the task is executed
-                try {
-                    rejectionLogger.info("Executing webhook task in caller thread as fallback");
-                    r.run();
-                } catch (Exception e) {
-                    rejectionLogger.error("Error executing webhook task in caller thread", e);
-                }
-            } else {
-                // If not a webhook task, use the default CallerRunsPolicy
-                new ThreadPoolExecutor.CallerRunsPolicy().rejectedExecution(r, executor);
+            if (executor.isShutdown()) {
+                rejectionLogger.warn("Webhook executor is shut down, dropping task; " +
+                        "pending deliveries are recovered from the database");
+                return;
+            }
+
+            if (!overflow.offer(r)) {
+                throw new RejectedExecutionException("Webhook executor and its overflow queue are full");
+            }
+
+            if (rejectedCount.incrementAndGet() % 1000 == 1) {
+                rejectionLogger.warn("Webhook task rejected, queue capacity reached. Current queue size: {}, " +
+                                "active threads: {}, overflow size: {}",
+                        executor.getQueue().size(), executor.getActiveCount(), overflow.size());
+            }
+
+            if (drainerStarted.compareAndSet(false, true)) {
+                Thread drainer = new Thread(() -> drain(executor), "webhook-overflow-drainer");
+                drainer.setDaemon(true);
+                drainer.start();
             }
         }
-    }
 
-    /**
-     * Interface for webhook tasks that can be persisted.
-     * In a real implementation, this would be implemented by the actual webhook
-     * delivery task classes.
-     */
-    public interface WebhookTask {
-        String getDetails();
+        /**
+         * Resubmits parked tasks through the executor, waiting for free slots.
+         * A task rejected again in a race is parked again, or run by the drainer
+         * if the overflow filled up in the meantime.
+         */
+        private void drain(ThreadPoolExecutor executor) {
+            try {
+                while (!executor.isShutdown()) {
+                    Runnable task = overflow.take();
+                    while (executor.getQueue().remainingCapacity() == 0 && !executor.isShutdown()) {
+                        Thread.sleep(DRAIN_BACKOFF_MS);
+                    }
+                    try {
+                        executor.execute(task);
+                    } catch (RejectedExecutionException e) {
+                        task.run();
+                    }
+                }
+                if (!overflow.isEmpty()) {
+                    rejectionLogger.warn("Webhook executor is shut down, dropping {} parked tasks; " +
+                            "pending deliveries are recovered from the database", overflow.size());
+                    overflow.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 }
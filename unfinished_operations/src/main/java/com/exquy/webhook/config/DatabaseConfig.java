@@ -1,19 +1,30 @@
 package com.exquy.webhook.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.util.StringUtils;
 
+import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 
@@ -21,6 +32,8 @@ import java.util.Properties;
  * Configuration class for database connectivity and JPA settings.
  * Configures the data source, entity manager, transaction manager,
  * and additional database-related features like auditing.
+ * Connections come from HikariCP pools. When a read replica is configured,
+ * read-only transactions are routed to it and everything else to the primary.
  */
 @Configuration
 @EnableTransactionManagement
@@ -28,6 +41,8 @@ import java.util.Properties;
 @EnableJpaAuditing(auditorAwareRef = "auditorProvider")
 public class DatabaseConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseConfig.class);
+
     @Value("${spring.datasource.url}")
     private String databaseUrl;
 
@@ -40,6 +55,33 @@ public class DatabaseConfig {
     @Value("${spring.datasource.driver-class-name}")
     private String driverClassName;
 
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${spring.datasource.hikari.minimum-idle:5}")
+    private int minimumIdle;
+
+    @Value("${spring.datasource.hikari.connection-timeout:20000}")
+    private long connectionTimeout;
+
+    @Value("${spring.datasource.hikari.idle-timeout:300000}")
+    private long idleTimeout;
+
+    @Value("${spring.datasource.hikari.max-lifetime:1200000}")
+    private long maxLifetime;
+
+    @Value("${spring.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${spring.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${spring.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${spring.datasource.replica.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int replicaMaximumPoolSize;
+
     @Value("${spring.jpa.hibernate.ddl-auto:none}")
     private String hibernateDdlAuto;
 
@@ -50,15 +92,70 @@ public class DatabaseConfig {
     private boolean showSql;
 
     /**
-     * Configures the data source for connecting to the database.
+     * Connection pool for the primary database.
+     */
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryDataSource(MeterRegistry meterRegistry) {
+        return createPool("primary", databaseUrl, databaseUsername, databasePassword,
+                maximumPoolSize, meterRegistry);
+    }
+
+    /**
+     * Connection pool for the read replica, or null when no replica is configured.
+     */
+    @Bean(destroyMethod = "close")
+    public HikariDataSource replicaDataSource(MeterRegistry meterRegistry) {
+        if (!StringUtils.hasText(replicaUrl)) {
+            return null;
+        }
+
+        return createPool("replica", replicaUrl, replicaUsername, replicaPassword,
+                replicaMaximumPoolSize, meterRegistry);
+    }
+
+    /**
+     * Configures the data source used by JPA, JDBC and Flyway.
+     * Read-only transactions go to the replica pool when there is one. The
+     * connection is fetched lazily, once the transaction's read-only flag is set.
      */
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Qualifier("replicaDataSource") Optional<HikariDataSource> replicaDataSource) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadOnlyRoutingDataSource.PRIMARY, primaryDataSource);
+        targets.put(ReadOnlyRoutingDataSource.REPLICA, replicaDataSource.orElse(primaryDataSource));
+
+        if (replicaDataSource.isPresent()) {
+            logger.info("Routing read-only transactions to replica {}", replicaUrl);
+        }
+
+        ReadOnlyRoutingDataSource routingDataSource = new ReadOnlyRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Creates a HikariCP pool that publishes its metrics to Micrometer.
+     */
+    private HikariDataSource createPool(String name, String url, String username, String password,
+                                        int poolSize, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
         dataSource.setDriverClassName(driverClassName);
-        dataSource.setUrl(databaseUrl);
-        dataSource.setUsername(databaseUsername);
-        dataSource.setPassword(databasePassword);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(Math.min(minimumIdle, poolSize));
+        dataSource.setConnectionTimeout(connectionTimeout);
+        dataSource.setIdleTimeout(idleTimeout);
+        dataSource.setMaxLifetime(maxLifetime);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
         return dataSource;
     }
 
@@ -66,9 +163,9 @@ public class DatabaseConfig {
      * Configures the entity manager factory, which is used to create EntityManager instances.
      */
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
-        em.setDataSource(dataSource());
+        em.setDataSource(dataSource);
         em.setPackagesToScan("com.company.transactionrecovery.domain.model");
 
         HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
@@ -85,13 +182,6 @@ public class DatabaseConfig {
         properties.setProperty("hibernate.order_inserts", "true");
         properties.setProperty("hibernate.order_updates", "true");
         
-        // Connection pool settings
-        properties.setProperty("hibernate.connection.provider_class", 
-                "org.hibernate.hikaricp.internal.HikariCPConnectionProvider");
-        properties.setProperty("hibernate.hikari.minimumIdle", "5");
-        properties.setProperty("hibernate.hikari.maximumPoolSize", "20");
-        properties.setProperty("hibernate.hikari.idleTimeout", "30000");
-        
         // Settings for handling large result sets
         properties.setProperty("hibernate.jdbc.fetch_size", "100");
         
@@ -106,9 +196,9 @@ public class DatabaseConfig {
      * Configures the transaction manager for managing database transactions.
      */
     @Bean
-    public PlatformTransactionManager transactionManager() {
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
         JpaTransactionManager transactionManager = new JpaTransactionManager();
-        transactionManager.setEntityManagerFactory(entityManagerFactory().getObject());
+        transactionManager.setEntityManagerFactory(entityManagerFactory);
         return transactionManager;
     }
 
@@ -128,26 +218,26 @@ public class DatabaseConfig {
      * Bean for monitoring database performance metrics.
      */
     @Bean
-    public DatabaseMetricsCollector databaseMetricsCollector() {
-        return new DatabaseMetricsCollector(entityManagerFactory().getObject());
+    public DatabaseMetricsCollector databaseMetricsCollector(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource) {
+        return new DatabaseMetricsCollector(primaryDataSource);
     }
 
     /**
      * Utility class for collecting database performance metrics.
-     * This would be implemented in a real application to monitor query performance,
-     * connection pool usage, etc.
+     * The full set of pool metrics is published to Micrometer under hikaricp.*.
      */
     public static class DatabaseMetricsCollector {
-        private final Object entityManagerFactory;
+        private final HikariDataSource primaryDataSource;
 
-        public DatabaseMetricsCollector(Object entityManagerFactory) {
-            this.entityManagerFactory = entityManagerFactory;
+        public DatabaseMetricsCollector(HikariDataSource primaryDataSource) {
+            this.primaryDataSource = primaryDataSource;
         }
 
-        // Methods to collect various metrics would be implemented here
         public long getConnectionPoolActiveConnections() {
-            // Implementation would extract connection pool statistics
-            return 0;
+            return primaryDataSource.getHikariPoolMXBean() != null
+                    ? primaryDataSource.getHikariPoolMXBean().getActiveConnections()
+                    : 0;
         }
     }
 }
@@ -1,20 +1,26 @@
 package com.exquy.webhook.config;
 
 import com.company.transactionrecovery.infrastructure.kafka.dto.TransactionEventMessage;
+import com.company.transactionrecovery.infrastructure.kafka.dto.WebhookConfigChangeMessage;
 import com.company.transactionrecovery.infrastructure.kafka.dto.WebhookEventMessage;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
@@ -48,9 +54,33 @@ public class KafkaConfig {
     @Value("${spring.kafka.topics.webhook-events.partitions:3}")
     private int webhookEventsPartitions;
 
+    @Value("${spring.kafka.topics.webhook-config-changes}")
+    private String webhookConfigChangesTopic;
+
     @Value("${spring.kafka.topics.replication-factor:1}")
     private short replicationFactor;
 
+    @Value("${spring.kafka.producer.linger-ms:20}")
+    private int producerLingerMs;
+
+    @Value("${spring.kafka.producer.batch-size:65536}")
+    private int producerBatchSize;
+
+    @Value("${async.virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${transaction.consumer.max-poll-records:100}")
+    private int transactionParallelMaxPollRecords;
+
+    @Value("${webhook.consumer.batch-size:500}")
+    private int webhookBatchSize;
+
+    @Value("${webhook.consumer.batch-max-wait-ms:100}")
+    private int webhookBatchMaxWaitMs;
+
+    @Value("${webhook.consumer.batch-min-bytes:65536}")
+    private int webhookBatchMinBytes;
+
     /**
      * Kafka admin client configurations for topic management.
      */
@@ -72,6 +102,19 @@ public class KafkaConfig {
                 .build();
     }
 
+    /**
+     * Creates the dead letter topic of the transaction events processed in
+     * parallel if it doesn't exist. Records keep their partition, so the topic
+     * has as many partitions as the transaction events topic.
+     */
+    @Bean
+    public NewTopic transactionEventsDeadLetterTopic() {
+        return TopicBuilder.name(transactionEventsTopic + ".DLT")
+                .partitions(transactionEventsPartitions)
+                .replicas(replicationFactor)
+                .build();
+    }
+
     /**
      * Creates the webhook events topic if it doesn't exist.
      */
@@ -83,6 +126,20 @@ public class KafkaConfig {
                 .build();
     }
 
+    /**
+     * Creates the compacted webhook configuration changes topic if it doesn't exist.
+     * Compaction keeps the latest change per webhook ID. The topic has a single
+     * partition, which every node assigns to itself and replays from the start.
+     */
+    @Bean
+    public NewTopic webhookConfigChangesTopic() {
+        return TopicBuilder.name(webhookConfigChangesTopic)
+                .partitions(1)
+                .replicas(replicationFactor)
+                .config(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT)
+                .build();
+    }
+
     /**
      * Producer configuration for sending messages to Kafka.
      */
@@ -99,6 +156,9 @@ public class KafkaConfig {
         // Retry logic
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, 1000);
+        // Let records sent together, such as an outbox batch, share requests
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, producerLingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
@@ -143,9 +203,50 @@ public class KafkaConfig {
         factory.setBatchListener(false);
         // Enable transaction support for consumers
         factory.getContainerProperties().setTransactionManager(null); // Set your transaction manager if needed
+        configureListenerThreads(factory, "kafka-transaction-");
         return factory;
     }
 
+    /**
+     * Consumer configuration for transaction events processed in parallel.
+     * Polls are kept small, since the rest of a poll is still handed to the
+     * worker pool after KeyOrderedRecordProcessor pauses the container.
+     */
+    @Bean
+    public ConsumerFactory<String, TransactionEventMessage> transactionEventParallelConsumerFactory() {
+        Map<String, Object> props = new HashMap<>(transactionEventConsumerFactory().getConfigurationProperties());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, transactionParallelMaxPollRecords);
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    /**
+     * Kafka listener container factory for transaction events processed in parallel.
+     * Records are handed to KeyOrderedRecordProcessor and acknowledged out of
+     * order as they complete; with async acks the container defers each commit
+     * until all earlier offsets of the partition have been acknowledged.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TransactionEventMessage> transactionParallelKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, TransactionEventMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(transactionEventParallelConsumerFactory());
+        factory.setConcurrency(3);
+        factory.setBatchListener(false);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        configureListenerThreads(factory, "kafka-transaction-parallel-");
+        return factory;
+    }
+
+    /**
+     * Publishes transaction events that failed in parallel processing to the
+     * transaction events dead letter topic, on the partition they came from.
+     */
+    @Bean
+    public ConsumerRecordRecoverer transactionEventDeadLetterRecoverer() {
+        return new DeadLetterPublishingRecoverer(kafkaTemplate());
+    }
+
     /**
      * Consumer configuration for webhook events.
      */
@@ -177,6 +278,89 @@ public class KafkaConfig {
         factory.setConcurrency(3);
         // Configure batch processing if needed
         factory.setBatchListener(false);
+        configureListenerThreads(factory, "kafka-webhook-");
+        return factory;
+    }
+
+    /**
+     * Consumer configuration for webhook events in batch mode.
+     * A poll returns up to batch-size records; the broker holds a fetch for up to
+     * batch-max-wait-ms until batch-min-bytes are available, so batches fill up
+     * under load without delaying events when traffic is light.
+     */
+    @Bean
+    public ConsumerFactory<String, WebhookEventMessage> webhookEventBatchConsumerFactory() {
+        Map<String, Object> props = new HashMap<>(webhookEventConsumerFactory().getConfigurationProperties());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, webhookBatchSize);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, webhookBatchMaxWaitMs);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, webhookBatchMinBytes);
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    /**
+     * Kafka listener container factory for webhook events in batch mode.
+     * Offsets are committed by the listener once the batch's deliveries are stored.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, WebhookEventMessage> webhookBatchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, WebhookEventMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(webhookEventBatchConsumerFactory());
+        factory.setConcurrency(3);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        configureListenerThreads(factory, "kafka-webhook-batch-");
+        return factory;
+    }
+
+    /**
+     * Consumer configuration for webhook configuration changes.
+     * The listener assigns the topic's partition itself instead of joining a
+     * consumer group, so every node receives every change without leaving a
+     * consumer group behind on each restart. No offsets are committed: each
+     * node replays the compacted topic from the start, which also covers
+     * changes made between loading the routing table and the listener starting.
+     */
+    @Bean
+    public ConsumerFactory<String, WebhookConfigChangeMessage> webhookConfigChangeConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, WebhookConfigChangeMessage.class.getName());
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.company.transactionrecovery.infrastructure.kafka.dto");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    /**
+     * Kafka listener container factory for webhook configuration changes.
+     * Records are never acknowledged, so the container never commits offsets
+     * for a consumer that has no group.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, WebhookConfigChangeMessage> webhookConfigChangeKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, WebhookConfigChangeMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(webhookConfigChangeConsumerFactory());
+        factory.setConcurrency(1);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        configureListenerThreads(factory, "kafka-webhook-config-");
         return factory;
     }
+
+    /**
+     * Runs the consumer threads of a listener container on virtual threads when
+     * async.virtual-threads.enabled is set.
+     */
+    private void configureListenerThreads(ConcurrentKafkaListenerContainerFactory<String, ?> factory,
+                                          String threadNamePrefix) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.exquy.webhook.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Data source that sends connections of read-only transactions to the read
+ * replica and all other connections to the primary.
+ * The transaction's read-only flag is only known once the transaction has
+ * started, so this data source must be wrapped in a LazyConnectionDataSourceProxy
+ * that defers fetching the connection until the first statement.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA : PRIMARY;
+    }
+}
@@ -142,6 +142,20 @@ public class Transaction {
     @Column(name = "notes", length = 1000)
     private String notes;
 
+    /**
+     * Canonical hash of the origin system and payload, computed at creation.
+     * Used to recognize repeated requests without comparing payloads.
+     */
+    @Column(name = "payload_fingerprint", length = 64, updatable = false)
+    private String payloadFingerprint;
+
+    /**
+     * Number of history entries recorded for the transaction.
+     * Maintained by the database when history entries are inserted.
+     */
+    @Column(name = "state_change_count", insertable = false, updatable = false)
+    private Integer stateChangeCount;
+
     /**
      * Lock version for optimistic locking.
      * Prevents concurrent updates from overwriting each other.
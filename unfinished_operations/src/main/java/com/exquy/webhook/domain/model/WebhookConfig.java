@@ -113,27 +113,29 @@ public class WebhookConfig {
 
     /**
      * Last time a successful webhook delivery was made.
+     * The delivery counters are maintained by WebhookStatsAggregator and never
+     * written through the entity, so saving a configuration cannot overwrite them.
      */
-    @Column(name = "last_success_at")
+    @Column(name = "last_success_at", updatable = false)
     private LocalDateTime lastSuccessAt;
 
     /**
      * Last time a webhook delivery failed.
      */
-    @Column(name = "last_failure_at")
+    @Column(name = "last_failure_at", updatable = false)
     private LocalDateTime lastFailureAt;
 
     /**
      * Count of successful webhook deliveries.
      */
-    @Column(name = "success_count")
+    @Column(name = "success_count", updatable = false)
     @Builder.Default
     private Long successCount = 0L;
 
     /**
      * Count of failed webhook deliveries.
      */
-    @Column(name = "failure_count")
+    @Column(name = "failure_count", updatable = false)
     @Builder.Default
     private Long failureCount = 0L;
 
@@ -144,6 +146,15 @@ public class WebhookConfig {
     @Version
     private Long version;
 
+    /**
+     * Indicates a temporary configuration built for a transaction-specific
+     * webhook URL that is not registered. Temporary configurations are never
+     * saved and keep no per-webhook state such as breakers or delivery stats.
+     */
+    @Transient
+    @Builder.Default
+    private boolean temporary = false;
+
     /**
      * Checks if this webhook is subscribed to a specific event type.
      *
@@ -155,7 +166,8 @@ public class WebhookConfig {
     }
 
     /**
-     * Records a successful webhook delivery.
+     * Records a successful webhook delivery on this instance only.
+     * Persistent counters are updated through WebhookStatsAggregator.
      */
     public void recordSuccess() {
         this.lastSuccessAt = LocalDateTime.now();
@@ -163,7 +175,8 @@ public class WebhookConfig {
     }
 
     /**
-     * Records a failed webhook delivery.
+     * Records a failed webhook delivery on this instance only.
+     * Persistent counters are updated through WebhookStatsAggregator.
      */
     public void recordFailure() {
         this.lastFailureAt = LocalDateTime.now();
@@ -151,6 +151,20 @@ public class WebhookDelivery {
     @Column(name = "next_retry_at")
     private LocalDateTime nextRetryAt;
 
+    /**
+     * Identifier of the node that has claimed this delivery for sending, or
+     * that owns its retry timer while it is RETRY_SCHEDULED.
+     */
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    /**
+     * Timestamp when the current lease expires. A PROCESSING delivery whose
+     * lease has expired may be claimed again by any node.
+     */
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
     /**
      * Records a delivery attempt with the given response details.
      *
@@ -169,6 +183,11 @@ public class WebhookDelivery {
         if (status == WebhookDeliveryStatus.DELIVERED) {
             this.nextRetryAt = null;
         }
+
+        // The lease only covers the PROCESSING state
+        if (status != WebhookDeliveryStatus.PROCESSING) {
+            releaseLease();
+        }
     }
 
     /**
@@ -182,6 +201,7 @@ public class WebhookDelivery {
         this.lastAttemptAt = LocalDateTime.now();
         this.deliveryStatus = status;
         this.errorDetails = errorDetails;
+        releaseLease();
     }
 
     /**
@@ -192,6 +212,27 @@ public class WebhookDelivery {
     public void scheduleRetry(LocalDateTime nextRetryAt) {
         this.nextRetryAt = nextRetryAt;
         this.deliveryStatus = WebhookDeliveryStatus.RETRY_SCHEDULED;
+        releaseLease();
+    }
+
+    /**
+     * Schedules the next retry attempt on the given node.
+     * The owner is kept so that the node can rebuild its retry timers after a restart.
+     *
+     * @param nextRetryAt The timestamp for the next retry
+     * @param owner Identifier of the node that will fire the retry
+     */
+    public void scheduleRetry(LocalDateTime nextRetryAt, String owner) {
+        scheduleRetry(nextRetryAt);
+        this.leaseOwner = owner;
+    }
+
+    /**
+     * Releases the claim held on this delivery by a sending node.
+     */
+    public void releaseLease() {
+        this.leaseOwner = null;
+        this.leaseExpiresAt = null;
     }
 
     /**
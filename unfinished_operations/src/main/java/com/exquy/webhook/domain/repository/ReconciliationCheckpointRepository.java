@@ -0,0 +1,237 @@
+package com.exquy.webhook.domain.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC repository for the reconciliation_checkpoints table.
+ * Each run of the reconciliation engine has one row per partition, holding the
+ * last transaction ID the partition has committed, so an interrupted run can
+ * be resumed where each partition stopped. Partitions are claimed by a node
+ * for the duration of a lease, so the nodes of a cluster can share a run
+ * without walking the same partition twice.
+ */
+@Repository
+public class ReconciliationCheckpointRepository {
+
+    // Any constant works, as long as every node uses the same one
+    private static final String RUN_LOCK = "reconciliation_run";
+
+    // Partitions claimed by a node whose lease expired are taken over
+    private static final String CLAIM_PARTITION =
+            "UPDATE reconciliation_checkpoints SET claimed_by = ?, " +
+            "claimed_until = LOCALTIMESTAMP + ? * INTERVAL '1 millisecond' " +
+            "WHERE (run_id, partition_index) = (" +
+            "  SELECT run_id, partition_index FROM reconciliation_checkpoints " +
+            "  WHERE run_id = ?::uuid AND is_completed = FALSE " +
+            "  AND (claimed_until IS NULL OR claimed_until <= LOCALTIMESTAMP) " +
+            "  ORDER BY partition_index LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *";
+
+    private static final RowMapper<Checkpoint> CHECKPOINT_MAPPER = (rs, rowNum) -> new Checkpoint(
+            rs.getObject("run_id", UUID.class),
+            rs.getInt("partition_index"),
+            rs.getInt("partition_count"),
+            rs.getObject("last_transaction_id", UUID.class),
+            rs.getLong("processed_count"),
+            rs.getLong("reconciled_count"),
+            rs.getLong("failed_count"),
+            rs.getBoolean("is_completed"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ReconciliationCheckpointRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes the run lock until the current database transaction ends, waiting
+     * for it if needed, so only one node in the cluster starts a run at a time.
+     */
+    public void lockRuns() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext(?))::text", String.class, RUN_LOCK);
+    }
+
+    /**
+     * Finds the most recent run that still has unfinished partitions.
+     *
+     * @return Optional containing the run ID if found
+     */
+    public Optional<UUID> findIncompleteRun() {
+        List<UUID> runIds = jdbcTemplate.query(
+                "SELECT run_id FROM reconciliation_checkpoints WHERE is_completed = FALSE " +
+                "ORDER BY started_at DESC LIMIT 1",
+                (rs, rowNum) -> rs.getObject("run_id", UUID.class));
+
+        return runIds.stream().findFirst();
+    }
+
+    /**
+     * Creates the checkpoints of a new run, one per partition.
+     *
+     * @param runId The run ID
+     * @param partitionCount The number of partitions
+     */
+    public void createRun(UUID runId, int partitionCount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.update(
+                "INSERT INTO reconciliation_checkpoints (run_id, partition_index, partition_count, " +
+                "started_at, updated_at) " +
+                "SELECT ?::uuid, p, ?, ?, ? FROM generate_series(0, ?) AS p",
+                runId.toString(), partitionCount, now, now, partitionCount - 1);
+    }
+
+    /**
+     * Gets the checkpoints of all partitions of a run.
+     *
+     * @param runId The run ID
+     * @return List of checkpoints ordered by partition
+     */
+    public List<Checkpoint> findByRun(UUID runId) {
+        return jdbcTemplate.query(
+                "SELECT * FROM reconciliation_checkpoints WHERE run_id = ?::uuid ORDER BY partition_index",
+                CHECKPOINT_MAPPER, runId.toString());
+    }
+
+    /**
+     * Claims the first unfinished partition of a run that no other node holds.
+     * Partitions locked by a concurrent claim are skipped rather than waited for.
+     *
+     * @param runId The run ID
+     * @param owner The identifier of the claiming node
+     * @param leaseMs How long the claim holds
+     * @return Optional containing the checkpoint of the claimed partition, empty if none is left
+     */
+    public Optional<Checkpoint> claimPartition(UUID runId, String owner, long leaseMs) {
+        List<Checkpoint> claimed = jdbcTemplate.query(
+                CLAIM_PARTITION, CHECKPOINT_MAPPER, owner, leaseMs, runId.toString());
+
+        return claimed.stream().findFirst();
+    }
+
+    /**
+     * Extends the claim of a partition. Meant to run in the same transaction as
+     * the chunk that follows, whose checkpoint row it locks.
+     *
+     * @param runId The run ID
+     * @param partition The partition index
+     * @param owner The identifier of the node holding the claim
+     * @param leaseMs How long the claim holds from now
+     * @return true if the claim was extended, false if the node no longer holds it
+     */
+    public boolean renewClaim(UUID runId, int partition, String owner, long leaseMs) {
+        return jdbcTemplate.update(
+                "UPDATE reconciliation_checkpoints " +
+                "SET claimed_until = LOCALTIMESTAMP + ? * INTERVAL '1 millisecond' " +
+                "WHERE run_id = ?::uuid AND partition_index = ? AND claimed_by = ?",
+                leaseMs, runId.toString(), partition, owner) > 0;
+    }
+
+    /**
+     * Moves a partition's checkpoint past a committed chunk.
+     * Meant to run in the same transaction as the chunk itself.
+     *
+     * @param runId The run ID
+     * @param partition The partition index
+     * @param owner The identifier of the node holding the claim
+     * @param lastTransactionId The last transaction ID of the chunk
+     * @param processed Number of transactions processed in the chunk
+     * @param reconciled Number of transactions reconciled in the chunk
+     * @param failed Number of transactions that failed in the chunk
+     */
+    public void advance(UUID runId, int partition, String owner, UUID lastTransactionId,
+                        long processed, long reconciled, long failed) {
+        jdbcTemplate.update(
+                "UPDATE reconciliation_checkpoints SET last_transaction_id = ?::uuid, " +
+                "processed_count = processed_count + ?, " +
+                "reconciled_count = reconciled_count + ?, " +
+                "failed_count = failed_count + ?, " +
+                "updated_at = ? " +
+                "WHERE run_id = ?::uuid AND partition_index = ? AND claimed_by = ?",
+                lastTransactionId.toString(), processed, reconciled, failed,
+                Timestamp.valueOf(LocalDateTime.now()), runId.toString(), partition, owner);
+    }
+
+    /**
+     * Marks a partition as completed and releases its claim.
+     *
+     * @param runId The run ID
+     * @param partition The partition index
+     * @param owner The identifier of the node holding the claim
+     */
+    public void complete(UUID runId, int partition, String owner) {
+        jdbcTemplate.update(
+                "UPDATE reconciliation_checkpoints SET is_completed = TRUE, " +
+                "claimed_by = NULL, claimed_until = NULL, updated_at = ? " +
+                "WHERE run_id = ?::uuid AND partition_index = ? AND claimed_by = ?",
+                Timestamp.valueOf(LocalDateTime.now()), runId.toString(), partition, owner);
+    }
+
+    /**
+     * Checkpoint of one partition of a reconciliation run.
+     */
+    public static class Checkpoint {
+        private final UUID runId;
+        private final int partition;
+        private final int partitionCount;
+        private final UUID lastTransactionId;
+        private final long processed;
+        private final long reconciled;
+        private final long failed;
+        private final boolean completed;
+
+        public Checkpoint(UUID runId, int partition, int partitionCount, UUID lastTransactionId,
+                          long processed, long reconciled, long failed, boolean completed) {
+            this.runId = runId;
+            this.partition = partition;
+            this.partitionCount = partitionCount;
+            this.lastTransactionId = lastTransactionId;
+            this.processed = processed;
+            this.reconciled = reconciled;
+            this.failed = failed;
+            this.completed = completed;
+        }
+
+        public UUID getRunId() {
+            return runId;
+        }
+
+        public int getPartition() {
+            return partition;
+        }
+
+        public int getPartitionCount() {
+            return partitionCount;
+        }
+
+        public UUID getLastTransactionId() {
+            return lastTransactionId;
+        }
+
+        public long getProcessed() {
+            return processed;
+        }
+
+        public long getReconciled() {
+            return reconciled;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.exquy.webhook.domain.repository;
+
+import com.company.transactionrecovery.domain.enums.TransactionStatus;
+import com.company.transactionrecovery.domain.model.Transaction;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC repository for set-based reads and writes of the transactions table.
+ * Writes made here record their own history rows in the same statement.
+ * Callers of the status changes must also skip the status history trigger for
+ * the current database transaction with skipStatusHistoryTrigger().
+ */
+@Repository
+public class TransactionBatchRepository {
+
+    private static final TypeReference<Map<String, Object>> JSON_MAP = new TypeReference<>() {};
+
+    private static final int ID_FETCH_SIZE = 10000;
+
+    // Rows are claimed with SKIP LOCKED so a sweep never waits on a transaction being processed
+    private static final String TIME_OUT_STALLED =
+            "WITH stalled AS (" +
+            "  SELECT id FROM transactions " +
+            "  WHERE status = ?::transaction_status AND created_at < ? " +
+            "  AND (CAST(? AS timestamp) IS NULL OR COALESCE(last_attempt_at, created_at) < ?) " +
+            "  ORDER BY created_at " +
+            "  LIMIT ? " +
+            "  FOR UPDATE SKIP LOCKED" +
+            "), timed_out AS (" +
+            "  UPDATE transactions t SET status = 'TIMEOUT', updated_at = ?, version = t.version + 1 " +
+            "  FROM stalled WHERE t.id = stalled.id " +
+            "  RETURNING t.*" +
+            "), history AS (" +
+            "  INSERT INTO transaction_history " +
+            "  (transaction_id, previous_status, new_status, changed_at, reason, changed_by, is_automatic) " +
+            "  SELECT id, ?::transaction_status, 'TIMEOUT', ?, ?, ?, TRUE FROM timed_out" +
+            ") " +
+            "SELECT * FROM timed_out";
+
+    // History rows are only written for transaction rows that were actually inserted
+    private static final String INSERT_IF_ABSENT_PREFIX =
+            "WITH inserted AS (" +
+            "  INSERT INTO transactions (id, origin_system, status, payload, payload_fingerprint, " +
+            "  attempt_count, webhook_url, webhook_security_token, created_at, updated_at, " +
+            "  is_reconciled, version) " +
+            "  VALUES ";
+
+    private static final String INSERT_IF_ABSENT_ROW =
+            "(?, ?, ?::transaction_status, ?::jsonb, ?, ?, ?, ?, ?, ?, FALSE, 0)";
+
+    private static final String INSERT_IF_ABSENT_SUFFIX =
+            "  ON CONFLICT (id) DO NOTHING " +
+            "  RETURNING *" +
+            "), history AS (" +
+            "  INSERT INTO transaction_history " +
+            "  (transaction_id, previous_status, new_status, changed_at, reason, changed_by, " +
+            "  attempt_number, is_automatic) " +
+            "  SELECT id, NULL, status, created_at, 'Transaction created', origin_system, attempt_count, TRUE " +
+            "  FROM inserted" +
+            ") " +
+            "SELECT * FROM inserted";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RowMapper<Transaction> transactionMapper = this::mapTransaction;
+
+    @Autowired
+    public TransactionBatchRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Disables the status history trigger until the current database transaction ends.
+     */
+    public void skipStatusHistoryTrigger() {
+        jdbcTemplate.execute("SET LOCAL transaction_recovery.skip_status_history = 'on'");
+    }
+
+    /**
+     * Inserts a new transaction with its initial history entry in a single
+     * statement, unless a transaction with the same ID already exists.
+     * A concurrent insert of the same ID makes this call wait until the other
+     * database transaction ends, so exactly one caller creates the transaction.
+     *
+     * @param transaction The transaction to insert
+     * @return Optional containing the inserted transaction, or empty if the ID already exists
+     */
+    public Optional<Transaction> insertIfAbsent(Transaction transaction) {
+        return insertAllIfAbsent(List.of(transaction)).stream().findFirst();
+    }
+
+    /**
+     * Inserts new transactions with their initial history entries in a single
+     * statement, skipping those whose ID already exists. The initial history
+     * entries are attributed to each transaction's origin system. The
+     * transactions must have distinct IDs. Rows are inserted in ID order, so
+     * concurrent calls with overlapping IDs take their locks in the same order
+     * and cannot deadlock.
+     *
+     * @param transactions The transactions to insert
+     * @return The inserted transactions
+     */
+    public List<Transaction> insertAllIfAbsent(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return List.of();
+        }
+
+        List<Transaction> ordered = new ArrayList<>(transactions);
+        ordered.sort(Comparator.comparing(Transaction::getId));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        StringBuilder sql = new StringBuilder(INSERT_IF_ABSENT_PREFIX);
+        List<Object> args = new ArrayList<>(ordered.size() * 10);
+
+        for (int i = 0; i < ordered.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_IF_ABSENT_ROW);
+
+            Transaction transaction = ordered.get(i);
+            args.add(transaction.getId());
+            args.add(transaction.getOriginSystem());
+            args.add(transaction.getStatus().name());
+            args.add(writeJson(transaction.getPayload()));
+            args.add(transaction.getPayloadFingerprint());
+            args.add(transaction.getAttemptCount());
+            args.add(transaction.getWebhookUrl());
+            args.add(transaction.getWebhookSecurityToken());
+            args.add(now);
+            args.add(now);
+        }
+
+        sql.append(INSERT_IF_ABSENT_SUFFIX);
+
+        return jdbcTemplate.query(sql.toString(), transactionMapper, args.toArray());
+    }
+
+    /**
+     * Streams the IDs of the transactions created after the given time, without
+     * holding them all in memory.
+     *
+     * @param createdAfter Only transactions created after this time are read
+     * @param consumer Receives each ID
+     */
+    public void forEachIdCreatedAfter(LocalDateTime createdAfter, Consumer<UUID> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id FROM transactions WHERE created_at > ?");
+            statement.setFetchSize(ID_FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(createdAfter));
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getObject("id", UUID.class)));
+    }
+
+    /**
+     * Moves a chunk of stalled transactions to TIMEOUT and records their history
+     * in a single statement.
+     *
+     * @param fromStatus The status the transactions are stalled in
+     * @param createdBefore Only transactions created before this time are stalled
+     * @param lastAttemptBefore If not null, only transactions whose last attempt (or
+     *                          creation, if never attempted) is before this time are stalled
+     * @param reason The reason recorded in the history
+     * @param changedBy The actor recorded in the history
+     * @param limit Maximum number of transactions to time out
+     * @return The timed out transactions, in their new state
+     */
+    public List<Transaction> timeOutStalled(TransactionStatus fromStatus, LocalDateTime createdBefore,
+                                            LocalDateTime lastAttemptBefore, String reason,
+                                            String changedBy, int limit) {
+        Timestamp lastAttemptTime = lastAttemptBefore != null ? Timestamp.valueOf(lastAttemptBefore) : null;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        return jdbcTemplate.query(TIME_OUT_STALLED, transactionMapper,
+                fromStatus.name(), Timestamp.valueOf(createdBefore), lastAttemptTime, lastAttemptTime, limit,
+                now,
+                fromStatus.name(), now, reason, changedBy);
+    }
+
+    private Transaction mapTransaction(ResultSet rs, int rowNum) throws SQLException {
+        return Transaction.builder()
+                .id(rs.getObject("id", UUID.class))
+                .originSystem(rs.getString("origin_system"))
+                .status(TransactionStatus.valueOf(rs.getString("status")))
+                .payload(readJson(rs.getString("payload")))
+                .payloadFingerprint(rs.getString("payload_fingerprint"))
+                .response(readJson(rs.getString("response")))
+                .errorDetails(readJson(rs.getString("error_details")))
+                .attemptCount(rs.getInt("attempt_count"))
+                .lastAttemptAt(toLocalDateTime(rs.getTimestamp("last_attempt_at")))
+                .completionAt(toLocalDateTime(rs.getTimestamp("completion_at")))
+                .webhookUrl(rs.getString("webhook_url"))
+                .webhookSecurityToken(rs.getString("webhook_security_token"))
+                .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                .isReconciled(rs.getBoolean("is_reconciled"))
+                .notes(rs.getString("notes"))
+                .version(rs.getLong("version"))
+                .build();
+    }
+
+    private Map<String, Object> readJson(String json) throws SQLException {
+        if (json == null) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(json, JSON_MAP);
+        } catch (Exception e) {
+            throw new SQLException("Unable to read JSON column", e);
+        }
+    }
+
+    private String writeJson(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to write JSON column", e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
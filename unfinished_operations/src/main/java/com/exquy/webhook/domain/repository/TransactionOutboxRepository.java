@@ -0,0 +1,168 @@
+package com.exquy.webhook.domain.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JDBC repository for the transaction_outbox table.
+ * Events are appended in the database transaction of the change they describe,
+ * claimed by the outbox relay for the duration of a lease, and deleted once
+ * Kafka has acknowledged them.
+ */
+@Repository
+public class TransactionOutboxRepository {
+
+    // Any constant works, as long as every relay uses the same one
+    private static final String RELAY_LOCK = "transaction_outbox_relay";
+
+    private static final String INSERT_ENTRY =
+            "INSERT INTO transaction_outbox (topic, message_key, payload) VALUES (?, ?, ?::jsonb)";
+
+    private static final String CLAIMED_ELSEWHERE =
+            "SELECT EXISTS (SELECT 1 FROM transaction_outbox " +
+            "WHERE claimed_until > LOCALTIMESTAMP AND claimed_by <> ?)";
+
+    // Expired claims and claims of the same relay are taken over
+    private static final String CLAIM_OLDEST =
+            "UPDATE transaction_outbox SET claimed_by = ?, " +
+            "claimed_until = LOCALTIMESTAMP + ? * INTERVAL '1 millisecond' " +
+            "WHERE id IN (SELECT id FROM transaction_outbox ORDER BY id LIMIT ?) " +
+            "RETURNING id, topic, message_key, payload";
+
+    private static final RowMapper<OutboxEntry> ENTRY_MAPPER = (rs, rowNum) -> new OutboxEntry(
+            rs.getLong("id"),
+            rs.getString("topic"),
+            rs.getString("message_key"),
+            rs.getString("payload"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TransactionOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Appends an event to the outbox.
+     *
+     * @param topic The Kafka topic of the event
+     * @param key The Kafka key of the event
+     * @param payload The JSON payload of the event
+     */
+    public void append(String topic, String key, String payload) {
+        jdbcTemplate.update(INSERT_ENTRY, topic, key, payload);
+    }
+
+    /**
+     * Appends several events to the outbox as one JDBC batch.
+     *
+     * @param entries The events, each as topic, key and JSON payload
+     */
+    public void appendAll(List<Object[]> entries) {
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, entries);
+    }
+
+    /**
+     * Takes the relay lock until the current database transaction ends, so only
+     * one relay in the cluster claims events at a time.
+     *
+     * @return true if the lock was taken, false if another relay holds it
+     */
+    public boolean tryLockRelay() {
+        Boolean locked = jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext(?))", Boolean.class, RELAY_LOCK);
+        return Boolean.TRUE.equals(locked);
+    }
+
+    /**
+     * Claims the oldest events of the outbox for a relay. Must run in a
+     * transaction: the relay lock serializes claims, and nothing is claimed while
+     * another relay still holds a live claim, so events are sent in order.
+     *
+     * @param owner The identifier of the claiming relay
+     * @param limit Maximum number of events to claim
+     * @param leaseMs How long the claim holds
+     * @return List of claimed events in ID order, empty if another relay is active
+     */
+    public List<OutboxEntry> claimOldest(String owner, int limit, long leaseMs) {
+        if (!tryLockRelay()) {
+            return List.of();
+        }
+
+        Boolean claimedElsewhere = jdbcTemplate.queryForObject(CLAIMED_ELSEWHERE, Boolean.class, owner);
+        if (Boolean.TRUE.equals(claimedElsewhere)) {
+            return List.of();
+        }
+
+        List<OutboxEntry> entries = new ArrayList<>(jdbcTemplate.query(CLAIM_OLDEST, ENTRY_MAPPER, owner, leaseMs, limit));
+        entries.sort(Comparator.comparingLong(OutboxEntry::getId));
+        return entries;
+    }
+
+    /**
+     * Deletes relayed events that are still claimed by the relay.
+     *
+     * @param ids The IDs of the events to delete
+     * @param owner The identifier of the relay that claimed the events
+     * @return The number of events deleted
+     */
+    public int delete(List<Long> ids, String owner) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM transaction_outbox WHERE id = ANY(?) AND claimed_by = ?");
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            statement.setString(2, owner);
+            return statement;
+        });
+    }
+
+    /**
+     * Counts the events waiting in the outbox.
+     *
+     * @return The number of events
+     */
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction_outbox", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * An event waiting in the outbox.
+     */
+    public static class OutboxEntry {
+        private final long id;
+        private final String topic;
+        private final String key;
+        private final String payload;
+
+        public OutboxEntry(long id, String topic, String key, String payload) {
+            this.id = id;
+            this.topic = topic;
+            this.key = key;
+            this.payload = payload;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+    }
+}
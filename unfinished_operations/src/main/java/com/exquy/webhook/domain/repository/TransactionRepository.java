@@ -30,6 +30,27 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
      */
     Optional<Transaction> findByIdAndOriginSystem(UUID id, String originSystem);
 
+    /**
+     * Finds the summary of a transaction by its ID, without reading its
+     * payload, response or error details.
+     *
+     * @param id The transaction ID
+     * @return An Optional containing the summary if found, or empty if not found
+     */
+    Optional<TransactionSummary> findSummaryById(UUID id);
+
+    /**
+     * Interface to hold the columns needed to recognize a repeated request.
+     */
+    interface TransactionSummary {
+        UUID getId();
+        TransactionStatus getStatus();
+        String getOriginSystem();
+        String getPayloadFingerprint();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+
     /**
      * Finds all transactions for a specific origin system.
      *
@@ -127,6 +148,27 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
            "(t.status = 'INCONSISTENT')")
     List<Transaction> findAnomalousTransactions(@Param("threshold") LocalDateTime threshold);
 
+    /**
+     * Finds transactions not in a terminal state that have been attempted at least
+     * the given number of times.
+     *
+     * @param threshold Minimum number of attempts
+     * @return List of transactions with excessive retries
+     */
+    @Query("SELECT t FROM Transaction t WHERE " +
+           "t.attemptCount >= :threshold AND " +
+           "t.status NOT IN ('COMPLETED', 'FAILED')")
+    List<Transaction> findUnresolvedWithAttemptCountAtLeast(@Param("threshold") int threshold);
+
+    /**
+     * Finds transactions with at least the given number of history entries.
+     *
+     * @param threshold Minimum number of state changes
+     * @return List of transactions with excessive state changes
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.stateChangeCount >= :threshold")
+    List<Transaction> findWithStateChangeCountAtLeast(@Param("threshold") int threshold);
+
     /**
      * Finds transactions with webhook enabled that need notification.
      * Used to ensure webhooks are sent for transactions that have changed state.
@@ -156,4 +198,28 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
     List<Object[]> getTransactionStatistics(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Finds the next chunk of IDs of transactions in non-terminal states, in ID order.
+     * Transactions are split into partitions by a hash of their ID, so several
+     * workers can walk disjoint sets of transactions concurrently.
+     *
+     * @param afterId Only IDs greater than this one are returned
+     * @param partitionCount The number of partitions
+     * @param partition The partition to read, from 0 to partitionCount - 1
+     * @param limit Maximum number of IDs to return
+     * @return List of transaction IDs
+     */
+    @Query(value = "SELECT id FROM transactions " +
+           "WHERE status IN ('PENDING', 'PROCESSING', 'TIMEOUT', 'INCONSISTENT') " +
+           "AND id > :afterId " +
+           "AND mod(hashtext(CAST(id AS text)) & 2147483647, :partitionCount) = :partition " +
+           "ORDER BY id " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<UUID> findUnresolvedIdsAfter(
+            @Param("afterId") UUID afterId,
+            @Param("partitionCount") int partitionCount,
+            @Param("partition") int partition,
+            @Param("limit") int limit);
 }
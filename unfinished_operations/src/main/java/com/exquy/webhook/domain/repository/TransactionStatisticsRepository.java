@@ -0,0 +1,61 @@
+package com.exquy.webhook.domain.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * JDBC repository for the transaction_statistics table.
+ * Holds one row per day, origin system and status with the number of
+ * transactions created that day that are currently in that status.
+ */
+@Repository
+public class TransactionStatisticsRepository {
+
+    // Terminal transactions are the only ones with a processing time
+    private static final String ROLL_UP_DAY =
+            "INSERT INTO transaction_statistics (date, origin_system, status, count, avg_processing_time_ms) " +
+            "SELECT ?, origin_system, status, COUNT(*), " +
+            "  CAST(AVG(EXTRACT(EPOCH FROM (completion_at - created_at)) * 1000) AS BIGINT) " +
+            "FROM transactions " +
+            "WHERE created_at >= ? AND created_at < ? " +
+            "GROUP BY origin_system, status " +
+            "ON CONFLICT (date, origin_system, status) DO UPDATE SET " +
+            "count = EXCLUDED.count, " +
+            "avg_processing_time_ms = EXCLUDED.avg_processing_time_ms";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TransactionStatisticsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Computes the statistics of one day and replaces any earlier rollup of it.
+     * Status combinations that no longer occur on that day are removed.
+     * Both statements run in one transaction, so readers never see a
+     * partially replaced day.
+     *
+     * @param date The day to roll up
+     * @return The number of rows written
+     */
+    @Transactional
+    public int rollUpDay(LocalDate date) {
+        Timestamp start = Timestamp.valueOf(date.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(date.plusDays(1).atStartOfDay());
+
+        jdbcTemplate.update(
+                "DELETE FROM transaction_statistics t WHERE t.date = ? AND NOT EXISTS (" +
+                "SELECT 1 FROM transactions tx WHERE tx.created_at >= ? AND tx.created_at < ? " +
+                "AND tx.origin_system = t.origin_system AND tx.status = t.status)",
+                Date.valueOf(date), start, end);
+
+        return jdbcTemplate.update(ROLL_UP_DAY, Date.valueOf(date), start, end);
+    }
+}
@@ -66,6 +66,24 @@ public interface WebhookConfigRepository extends JpaRepository<WebhookConfig, UU
            "WHERE w.isActive = true AND :eventType MEMBER OF events")
     List<WebhookConfig> findActiveWebhooksByEventTypeGeneric(@Param("eventType") WebhookEventType eventType);
 
+    /**
+     * Finds all active webhook configurations of an origin system that are subscribed
+     * to a specific event type. Both conditions are resolved by the database through
+     * the origin system and event containment indexes.
+     *
+     * @param originSystem The origin system identifier
+     * @param eventType The event type name to look for
+     * @return List of webhook configurations subscribed to the event
+     */
+    @Query(value = "SELECT * FROM webhooks w WHERE " +
+                   "w.is_active = TRUE AND " +
+                   "w.origin_system = :originSystem AND " +
+                   "w.events @> jsonb_build_array(CAST(:eventType AS text))",
+           nativeQuery = true)
+    List<WebhookConfig> findActiveSubscribers(
+            @Param("originSystem") String originSystem,
+            @Param("eventType") String eventType);
+
     /**
      * Finds webhook configurations by contact email.
      *
@@ -0,0 +1,276 @@
+package com.exquy.webhook.domain.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JDBC repository for set-based writes to the webhook_deliveries table.
+ * Used where one statement per row would dominate database load and the
+ * JPA repository's row-at-a-time saves are too expensive.
+ */
+@Repository
+public class WebhookDeliveryBatchRepository {
+
+    private static final String UPDATE_STATES_PREFIX =
+            "UPDATE webhook_deliveries AS wd SET " +
+            "delivery_status = v.delivery_status::webhook_delivery_status, " +
+            "attempt_count = v.attempt_count, " +
+            "last_attempt_at = v.last_attempt_at, " +
+            "response_code = v.response_code, " +
+            "response_body = v.response_body, " +
+            "error_details = v.error_details, " +
+            "next_retry_at = v.next_retry_at, " +
+            "lease_owner = v.lease_owner, " +
+            "lease_expires_at = v.lease_expires_at, " +
+            "updated_at = v.updated_at " +
+            "FROM (VALUES ";
+
+    private static final String UPDATE_STATES_ROW =
+            "(?::uuid, ?, ?::integer, ?::timestamp, ?::integer, ?, ?::jsonb, ?::timestamp, ?, ?::timestamp, ?::timestamp)";
+
+    // Never let a delayed flush overwrite a newer attempt written by another path
+    private static final String UPDATE_STATES_SUFFIX =
+            ") AS v(id, delivery_status, attempt_count, last_attempt_at, response_code, response_body, " +
+            "error_details, next_retry_at, lease_owner, lease_expires_at, updated_at) " +
+            "WHERE wd.id = v.id AND wd.attempt_count <= v.attempt_count";
+
+    private static final String INSERT_PENDING_PREFIX =
+            "INSERT INTO webhook_deliveries (id, webhook_id, transaction_id, event_type, delivery_status, " +
+            "payload, attempt_count, created_at, updated_at, is_acknowledged) VALUES ";
+
+    private static final String INSERT_PENDING_ROW =
+            "(?::uuid, ?::uuid, ?::uuid, ?::webhook_event_type, 'PENDING', ?::jsonb, 0, ?, ?, FALSE)";
+
+    // Deliveries redelivered by Kafka already have a row; only report the ones actually inserted
+    private static final String INSERT_PENDING_SUFFIX =
+            " ON CONFLICT (id) DO NOTHING RETURNING id";
+
+    // Keeps each INSERT well below the 65535 bind parameters PostgreSQL accepts
+    private static final int MAX_INSERT_ROWS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public WebhookDeliveryBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes the state columns of many deliveries in a single multi-row UPDATE.
+     *
+     * @param states The delivery states to write
+     * @return Number of rows updated
+     */
+    public int updateDeliveryStates(List<DeliveryState> states) {
+        if (states.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(UPDATE_STATES_PREFIX);
+        List<Object> args = new ArrayList<>(states.size() * 11);
+
+        for (int i = 0; i < states.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(UPDATE_STATES_ROW);
+
+            DeliveryState state = states.get(i);
+            args.add(state.getId().toString());
+            args.add(state.getDeliveryStatus());
+            args.add(state.getAttemptCount());
+            args.add(toTimestamp(state.getLastAttemptAt()));
+            args.add(state.getResponseCode());
+            args.add(state.getResponseBody());
+            args.add(state.getErrorDetailsJson());
+            args.add(toTimestamp(state.getNextRetryAt()));
+            args.add(state.getLeaseOwner());
+            args.add(toTimestamp(state.getLeaseExpiresAt()));
+            args.add(toTimestamp(state.getUpdatedAt()));
+        }
+
+        sql.append(UPDATE_STATES_SUFFIX);
+
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Inserts many PENDING deliveries with multi-row INSERTs of up to 1000 rows,
+     * skipping deliveries whose ID already exists.
+     *
+     * @param deliveries The deliveries to insert
+     * @return IDs of the deliveries that were inserted
+     */
+    public Set<UUID> insertPendingDeliveries(List<NewDelivery> deliveries) {
+        if (deliveries.isEmpty()) {
+            return Set.of();
+        }
+        if (deliveries.size() <= MAX_INSERT_ROWS) {
+            return insertPendingChunk(deliveries);
+        }
+
+        Set<UUID> inserted = new HashSet<>();
+        for (int from = 0; from < deliveries.size(); from += MAX_INSERT_ROWS) {
+            inserted.addAll(insertPendingChunk(
+                    deliveries.subList(from, Math.min(from + MAX_INSERT_ROWS, deliveries.size()))));
+        }
+        return inserted;
+    }
+
+    private Set<UUID> insertPendingChunk(List<NewDelivery> deliveries) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        StringBuilder sql = new StringBuilder(INSERT_PENDING_PREFIX);
+        List<Object> args = new ArrayList<>(deliveries.size() * 7);
+
+        for (int i = 0; i < deliveries.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_PENDING_ROW);
+
+            NewDelivery delivery = deliveries.get(i);
+            args.add(delivery.getId().toString());
+            args.add(delivery.getWebhookId().toString());
+            args.add(delivery.getTransactionId() != null ? delivery.getTransactionId().toString() : null);
+            args.add(delivery.getEventType());
+            args.add(delivery.getPayloadJson());
+            args.add(now);
+            args.add(now);
+        }
+
+        sql.append(INSERT_PENDING_SUFFIX);
+
+        return new HashSet<>(jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> rs.getObject("id", UUID.class), args.toArray()));
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+    /**
+     * Immutable snapshot of the mutable state columns of a webhook delivery.
+     */
+    public static class DeliveryState {
+        private final UUID id;
+        private final String deliveryStatus;
+        private final Integer attemptCount;
+        private final LocalDateTime lastAttemptAt;
+        private final Integer responseCode;
+        private final String responseBody;
+        private final String errorDetailsJson;
+        private final LocalDateTime nextRetryAt;
+        private final String leaseOwner;
+        private final LocalDateTime leaseExpiresAt;
+        private final LocalDateTime updatedAt;
+
+        public DeliveryState(UUID id, String deliveryStatus, Integer attemptCount,
+                             LocalDateTime lastAttemptAt, Integer responseCode, String responseBody,
+                             String errorDetailsJson, LocalDateTime nextRetryAt, String leaseOwner,
+                             LocalDateTime leaseExpiresAt, LocalDateTime updatedAt) {
+            this.id = id;
+            this.deliveryStatus = deliveryStatus;
+            this.attemptCount = attemptCount;
+            this.lastAttemptAt = lastAttemptAt;
+            this.responseCode = responseCode;
+            this.responseBody = responseBody;
+            this.errorDetailsJson = errorDetailsJson;
+            this.nextRetryAt = nextRetryAt;
+            this.leaseOwner = leaseOwner;
+            this.leaseExpiresAt = leaseExpiresAt;
+            this.updatedAt = updatedAt;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getDeliveryStatus() {
+            return deliveryStatus;
+        }
+
+        public Integer getAttemptCount() {
+            return attemptCount;
+        }
+
+        public LocalDateTime getLastAttemptAt() {
+            return lastAttemptAt;
+        }
+
+        public Integer getResponseCode() {
+            return responseCode;
+        }
+
+        public String getResponseBody() {
+            return responseBody;
+        }
+
+        public String getErrorDetailsJson() {
+            return errorDetailsJson;
+        }
+
+        public LocalDateTime getNextRetryAt() {
+            return nextRetryAt;
+        }
+
+        public String getLeaseOwner() {
+            return leaseOwner;
+        }
+
+        public LocalDateTime getLeaseExpiresAt() {
+            return leaseExpiresAt;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+
+    /**
+     * Column values of a new webhook delivery.
+     */
+    public static class NewDelivery {
+        private final UUID id;
+        private final UUID webhookId;
+        private final UUID transactionId;
+        private final String eventType;
+        private final String payloadJson;
+
+        public NewDelivery(UUID id, UUID webhookId, UUID transactionId, String eventType, String payloadJson) {
+            this.id = id;
+            this.webhookId = webhookId;
+            this.transactionId = transactionId;
+            this.eventType = eventType;
+            this.payloadJson = payloadJson;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public UUID getWebhookId() {
+            return webhookId;
+        }
+
+        public UUID getTransactionId() {
+            return transactionId;
+        }
+
+        public String getEventType() {
+            return eventType;
+        }
+
+        public String getPayloadJson() {
+            return payloadJson;
+        }
+    }
+}
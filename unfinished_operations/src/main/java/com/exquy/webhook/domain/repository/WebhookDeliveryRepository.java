@@ -9,8 +9,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -81,15 +83,110 @@ public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery
            "wd.nextRetryAt <= :now")
     List<WebhookDelivery> findDeliveriesDueForRetry(@Param("now") LocalDateTime now);
 
+    /**
+     * Claims a batch of deliveries that are due for retry, or whose PROCESSING lease
+     * has expired, and moves them to PROCESSING under a lease held by the caller.
+     * Rows locked by other nodes are skipped, so several nodes can drain the retry
+     * backlog in parallel without claiming the same delivery twice.
+     * Runs in its own transaction so the claim is committed before any send.
+     *
+     * @param dueBefore Only retries scheduled at or before this time are claimed
+     * @param now Current time
+     * @param leaseOwner Identifier of the claiming node
+     * @param leaseExpiresAt Time at which the lease expires
+     * @param batchSize Maximum number of deliveries to claim
+     * @return List of claimed webhook deliveries
+     */
+    @Transactional
+    @Query(value = "UPDATE webhook_deliveries SET " +
+                   "delivery_status = 'PROCESSING', " +
+                   "lease_owner = :leaseOwner, " +
+                   "lease_expires_at = :leaseExpiresAt, " +
+                   "updated_at = :now " +
+                   "WHERE id IN (" +
+                   "    SELECT id FROM webhook_deliveries " +
+                   "    WHERE (delivery_status = 'RETRY_SCHEDULED' AND next_retry_at <= :dueBefore) " +
+                   "       OR (delivery_status = 'PROCESSING' AND lease_expires_at < :now) " +
+                   "    ORDER BY next_retry_at " +
+                   "    LIMIT :batchSize " +
+                   "    FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING *",
+           nativeQuery = true)
+    List<WebhookDelivery> claimDeliveriesDueForRetry(
+            @Param("dueBefore") LocalDateTime dueBefore,
+            @Param("now") LocalDateTime now,
+            @Param("leaseOwner") String leaseOwner,
+            @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+            @Param("batchSize") int batchSize);
+
+    /**
+     * Claims specific deliveries whose retry is due, as fired by the retry timing wheel.
+     * Deliveries already claimed or rescheduled elsewhere are skipped.
+     *
+     * @param ids The delivery IDs
+     * @param dueBefore Only retries scheduled at or before this time are claimed
+     * @param now Current time
+     * @param leaseOwner Identifier of the claiming node
+     * @param leaseExpiresAt Time at which the lease expires
+     * @return List of claimed webhook deliveries
+     */
+    @Transactional
+    @Query(value = "UPDATE webhook_deliveries SET " +
+                   "delivery_status = 'PROCESSING', " +
+                   "lease_owner = :leaseOwner, " +
+                   "lease_expires_at = :leaseExpiresAt, " +
+                   "updated_at = :now " +
+                   "WHERE id IN (" +
+                   "    SELECT id FROM webhook_deliveries " +
+                   "    WHERE id IN (:ids) " +
+                   "      AND delivery_status = 'RETRY_SCHEDULED' " +
+                   "      AND next_retry_at <= :dueBefore " +
+                   "    FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING *",
+           nativeQuery = true)
+    List<WebhookDelivery> claimDeliveriesById(
+            @Param("ids") Collection<UUID> ids,
+            @Param("dueBefore") LocalDateTime dueBefore,
+            @Param("now") LocalDateTime now,
+            @Param("leaseOwner") String leaseOwner,
+            @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    /**
+     * Finds the retries owned by a node that are due before the given horizon.
+     * Used to rebuild the node's retry timing wheel on startup.
+     *
+     * @param owner The node ID
+     * @param horizon Latest retry time to include
+     * @return List of delivery IDs and their retry times
+     */
+    @Query("SELECT wd.id as id, wd.nextRetryAt as nextRetryAt FROM WebhookDelivery wd WHERE " +
+           "wd.deliveryStatus = 'RETRY_SCHEDULED' AND " +
+           "wd.leaseOwner = :owner AND " +
+           "wd.nextRetryAt <= :horizon")
+    List<ScheduledRetry> findScheduledRetriesForOwner(
+            @Param("owner") String owner,
+            @Param("horizon") LocalDateTime horizon);
+
+    /**
+     * Interface to hold scheduled retry results.
+     */
+    interface ScheduledRetry {
+        UUID getId();
+        LocalDateTime getNextRetryAt();
+    }
+
     /**
      * Finds webhook deliveries that are hanging (status is still processing for too long).
+     * Deliveries still PENDING past the threshold are included as well: their
+     * later state transitions are written behind, and may have been lost if the
+     * sending node went away before they were flushed.
      *
      * @param thresholdTime Time threshold for considering a delivery as hanging
      * @return List of hanging webhook deliveries
      */
     @Query("SELECT wd FROM WebhookDelivery wd WHERE " +
-           "wd.deliveryStatus = 'PROCESSING' AND " +
-           "wd.lastAttemptAt < :thresholdTime")
+           "(wd.deliveryStatus = 'PROCESSING' AND wd.lastAttemptAt < :thresholdTime) OR " +
+           "(wd.deliveryStatus = 'PENDING' AND wd.updatedAt < :thresholdTime)")
     List<WebhookDelivery> findHangingDeliveries(@Param("thresholdTime") LocalDateTime thresholdTime);
 
     /**
@@ -0,0 +1,118 @@
+package com.exquy.webhook.domain.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC repository for set-based writes of the delivery counters on the webhooks table.
+ * The counters are only ever incremented here, outside of the JPA entity, so these
+ * updates never contend on the optimistic lock of the webhook configuration.
+ */
+@Repository
+public class WebhookStatsBatchRepository {
+
+    private static final String INCREMENT_PREFIX =
+            "UPDATE webhooks AS w SET " +
+            "success_count = COALESCE(w.success_count, 0) + v.successes, " +
+            "failure_count = COALESCE(w.failure_count, 0) + v.failures, " +
+            "last_success_at = GREATEST(w.last_success_at, v.last_success_at), " +
+            "last_failure_at = GREATEST(w.last_failure_at, v.last_failure_at) " +
+            "FROM (VALUES ";
+
+    private static final String INCREMENT_ROW = "(?::uuid, ?::bigint, ?::bigint, ?::timestamp, ?::timestamp)";
+
+    private static final String INCREMENT_SUFFIX =
+            ") AS v(id, successes, failures, last_success_at, last_failure_at) " +
+            "WHERE w.id = v.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public WebhookStatsBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds the given deltas to the counters of many webhooks in a single multi-row UPDATE.
+     *
+     * @param deltas The counter deltas to apply
+     * @return Number of rows updated
+     */
+    public int incrementStats(List<StatsDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(INCREMENT_PREFIX);
+        List<Object> args = new ArrayList<>(deltas.size() * 5);
+
+        for (int i = 0; i < deltas.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INCREMENT_ROW);
+
+            StatsDelta delta = deltas.get(i);
+            args.add(delta.getWebhookId().toString());
+            args.add(delta.getSuccesses());
+            args.add(delta.getFailures());
+            args.add(toTimestamp(delta.getLastSuccessAt()));
+            args.add(toTimestamp(delta.getLastFailureAt()));
+        }
+
+        sql.append(INCREMENT_SUFFIX);
+
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+    /**
+     * Counter increments accumulated for a single webhook since the last flush.
+     */
+    public static class StatsDelta {
+        private final UUID webhookId;
+        private final long successes;
+        private final long failures;
+        private final LocalDateTime lastSuccessAt;
+        private final LocalDateTime lastFailureAt;
+
+        public StatsDelta(UUID webhookId, long successes, long failures,
+                          LocalDateTime lastSuccessAt, LocalDateTime lastFailureAt) {
+            this.webhookId = webhookId;
+            this.successes = successes;
+            this.failures = failures;
+            this.lastSuccessAt = lastSuccessAt;
+            this.lastFailureAt = lastFailureAt;
+        }
+
+        public UUID getWebhookId() {
+            return webhookId;
+        }
+
+        public long getSuccesses() {
+            return successes;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public LocalDateTime getLastSuccessAt() {
+            return lastSuccessAt;
+        }
+
+        public LocalDateTime getLastFailureAt() {
+            return lastFailureAt;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.exquy.webhook.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object for webhook configuration changes sent through Kafka.
+ * Published on a compacted topic keyed by webhook ID, so that every node can
+ * keep its in-memory routing table in sync. The configuration itself is not
+ * included; receivers re-read it from the database.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookConfigChangeMessage {
+
+    /**
+     * Identifier of the webhook configuration that changed.
+     */
+    private UUID webhookId;
+
+    /**
+     * Whether the webhook configuration was deleted.
+     */
+    private boolean deleted;
+
+    /**
+     * Identifier of the node that made the change.
+     */
+    private String sourceNodeId;
+
+    /**
+     * Timestamp when the change was made.
+     */
+    private LocalDateTime timestamp;
+}
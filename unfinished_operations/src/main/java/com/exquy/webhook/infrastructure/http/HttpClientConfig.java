@@ -1,5 +1,6 @@
 package com.exquy.webhook.infrastructure.http;
 
+import io.netty.channel.ChannelOption;
 import org.apache.http.HeaderElement;
 import org.apache.http.HeaderElementIterator;
 import org.apache.http.HttpResponse;
@@ -26,19 +27,25 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import javax.net.ssl.SSLContext;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Configuration for HTTP client used in webhook communications.
  * Provides optimized RestTemplate and HttpClient instances with
- * connection pooling, timeouts, and keep-alive settings.
+ * connection pooling, timeouts, and keep-alive settings, plus the
+ * non-blocking WebClient used by the webhook dispatcher.
  */
 @Configuration
 public class HttpClientConfig {
@@ -66,6 +73,12 @@ public class HttpClientConfig {
     @Value("${webhook.connection.validate-after-inactivity-ms:10000}")
     private int validateAfterInactivity;
 
+    @Value("${webhook.async.max-connections-per-route:500}")
+    private int asyncMaxConnectionsPerRoute;
+
+    @Value("${webhook.async.pending-acquire-max-count:10000}")
+    private int asyncPendingAcquireMaxCount;
+
     private PoolingHttpClientConnectionManager connectionManager;
 
     /**
@@ -79,6 +92,43 @@ public class HttpClientConfig {
         return restTemplate;
     }
 
+    /**
+     * Creates the non-blocking WebClient used to dispatch webhooks.
+     * Requests share a handful of Reactor Netty event-loop threads instead
+     * of holding one worker thread per in-flight POST.
+     *
+     * @param builder The WebClient builder provided by Spring Boot
+     * @return Configured WebClient instance
+     */
+    @Bean
+    public WebClient webhookWebClient(WebClient.Builder builder) {
+        HttpClient httpClient = HttpClient.create(webhookConnectionProvider())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectionTimeout)
+                .responseTimeout(Duration.ofMillis(socketTimeout));
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Creates the connection pool for the reactive webhook client.
+     * Limits apply per remote address, and requests waiting for a
+     * connection are queued instead of blocking a thread.
+     *
+     * @return ConnectionProvider instance
+     */
+    @Bean
+    public ConnectionProvider webhookConnectionProvider() {
+        return ConnectionProvider.builder("webhook-dispatch")
+                .maxConnections(asyncMaxConnectionsPerRoute)
+                .pendingAcquireMaxCount(asyncPendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(connectionRequestTimeout))
+                .maxIdleTime(Duration.ofMillis(defaultKeepAliveTime))
+                .evictInBackground(Duration.ofSeconds(30))
+                .build();
+    }
+
     /**
      * Creates a request factory with the pooled HTTP client.
      *
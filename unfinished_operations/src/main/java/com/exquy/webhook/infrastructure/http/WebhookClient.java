@@ -10,8 +10,12 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -24,6 +28,7 @@ public class WebhookClient {
     private static final Logger logger = LoggerFactory.getLogger(WebhookClient.class);
 
     private final RestTemplate restTemplate;
+    private final WebClient webClient;
 
     @Value("${webhook.connection.timeout-ms:5000}")
     private int connectionTimeout;
@@ -32,20 +37,21 @@ public class WebhookClient {
     private int readTimeout;
 
     @Autowired
-    public WebhookClient(RestTemplate restTemplate) {
+    public WebhookClient(RestTemplate restTemplate, WebClient webhookWebClient) {
         this.restTemplate = restTemplate;
+        this.webClient = webhookWebClient;
     }
 
     /**
      * Sends a webhook notification to the specified URL.
      *
      * @param url The URL to send the webhook to
-     * @param payload The JSON payload to send
+     * @param payload The UTF-8 encoded JSON payload to send
      * @param headers Additional headers to include
      * @return WebhookResponse containing the response status and body
      * @throws Exception if there's an error sending the webhook
      */
-    public WebhookResponse sendWebhook(String url, String payload, Map<String, Object> headers) throws Exception {
+    public WebhookResponse sendWebhook(String url, byte[] payload, Map<String, Object> headers) throws Exception {
         logger.debug("Sending webhook to URL: {}", url);
         
         try {
@@ -63,11 +69,11 @@ public class WebhookClient {
             }
             
             // Create the request entity with payload and headers
-            HttpEntity<String> entity = new HttpEntity<>(payload, httpHeaders);
+            HttpEntity<byte[]> entity = new HttpEntity<>(payload, httpHeaders);
             
             // Log request details at trace level (for debugging)
-            logger.trace("Webhook request - URL: {}, Headers: {}, Payload: {}", 
-                    url, httpHeaders, payload);
+            logger.trace("Webhook request - URL: {}, Headers: {}, Payload: {} bytes", 
+                    url, httpHeaders, payload.length);
             
             // Record start time for metrics
             long startTime = System.nanoTime();
@@ -94,11 +100,65 @@ public class WebhookClient {
         }
     }
 
+    /**
+     * Sends a webhook notification without blocking the calling thread.
+     * The request runs on the Reactor Netty event loop, so the number of
+     * deliveries in flight is bounded by the connection pool rather than
+     * by worker threads. The payload array is wrapped into the request body
+     * without copying, so the same serialized event can be shared by every
+     * subscriber it is sent to; it must not be modified afterwards.
+     *
+     * @param url The URL to send the webhook to
+     * @param payload The UTF-8 encoded JSON payload to send
+     * @param headers Additional headers to include
+     * @return CompletableFuture completed with the WebhookResponse, or exceptionally
+     *         if the endpoint is unreachable or answers with a non-2xx status
+     */
+    public CompletableFuture<WebhookResponse> sendWebhookAsync(String url, byte[] payload, Map<String, Object> headers) {
+        logger.debug("Dispatching webhook to URL: {}", url);
+
+        return Mono.defer(() -> {
+                    // Record start time for metrics
+                    long startTime = System.nanoTime();
+
+                    return webClient.post()
+                            .uri(url)
+                            .headers(httpHeaders -> {
+                                httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+
+                                // Add custom headers
+                                if (headers != null) {
+                                    headers.forEach((key, value) -> {
+                                        if (value != null) {
+                                            httpHeaders.set(key, value.toString());
+                                        }
+                                    });
+                                }
+                            })
+                            .bodyValue(payload)
+                            .retrieve()
+                            .toEntity(String.class)
+                            .map(response -> {
+                                long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+                                logger.debug("Webhook sent successfully to {} in {}ms. Status code: {}",
+                                        url, durationMs, response.getStatusCodeValue());
+
+                                return new WebhookResponse(
+                                        response.getStatusCodeValue(),
+                                        response.getBody(),
+                                        durationMs);
+                            });
+                })
+                .doOnError(e -> logger.error("Error sending webhook to {}: {}", url, e.getMessage()))
+                .toFuture();
+    }
+
     /**
      * Tries to send a webhook with retry logic.
      *
      * @param url The URL to send the webhook to
-     * @param payload The JSON payload to send
+     * @param payload The UTF-8 encoded JSON payload to send
      * @param headers Additional headers to include
      * @param maxRetries Maximum number of retry attempts
      * @param initialDelayMs Initial delay between retries in milliseconds
@@ -107,7 +167,7 @@ public class WebhookClient {
      */
     public WebhookResponse sendWebhookWithRetry(
             String url, 
-            String payload, 
+            byte[] payload, 
             Map<String, Object> headers,
             int maxRetries, 
             int initialDelayMs) throws Exception {
@@ -161,7 +221,7 @@ public class WebhookClient {
             String testPayload = "{\"event\":\"test\",\"timestamp\":\"" + 
                     java.time.LocalDateTime.now() + "\"}";
             
-            WebhookResponse response = sendWebhook(url, testPayload, null);
+            WebhookResponse response = sendWebhook(url, testPayload.getBytes(StandardCharsets.UTF_8), null);
             
             // Consider any response in the 2xx range as success
             return response.getStatusCode() >= 200 && response.getStatusCode() < 300;
@@ -0,0 +1,170 @@
+package com.exquy.webhook.infrastructure.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs Kafka records on a worker pool with per-key ordering, so a single
+ * partition can be processed by many workers at once.
+ * Records with the same key run one after another in offset order; records
+ * with different keys run in parallel. Each record is acknowledged once it
+ * has been processed, or once it has been published to the dead letter topic
+ * if processing failed, and the listener container (configured with async
+ * acks) only commits offsets up to the highest contiguous acknowledged record,
+ * so a restart never skips a record that was still in flight. A record that
+ * could not be dead-lettered either is never acknowledged and is redelivered
+ * after the next restart or rebalance.
+ * The listener thread never waits for capacity: the listener container is
+ * paused while too many records are in flight and resumed once half of them
+ * have completed, so the consumer keeps polling within max.poll.interval.ms.
+ */
+@Component
+public class KeyOrderedRecordProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyOrderedRecordProcessor.class);
+
+    private final Executor consumerExecutor;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final ConsumerRecordRecoverer deadLetterRecoverer;
+
+    // Never more records in flight than the consumer executor can queue
+    @Value("${async.consumer.queue-capacity:1000}")
+    private int maxInFlight;
+
+    // Records of a poll that are still submitted after the container is paused
+    @Value("${transaction.consumer.max-poll-records:100}")
+    private int maxPollRecords;
+
+    private int pauseThreshold;
+    private int resumeThreshold;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Tail of the chain of records still pending for each key
+    private final Map<Object, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    @Autowired
+    public KeyOrderedRecordProcessor(
+            @Qualifier("consumerExecutor") Executor consumerExecutor,
+            KafkaListenerEndpointRegistry listenerRegistry,
+            @Qualifier("transactionEventDeadLetterRecoverer") ConsumerRecordRecoverer deadLetterRecoverer) {
+        this.consumerExecutor = consumerExecutor;
+        this.listenerRegistry = listenerRegistry;
+        this.deadLetterRecoverer = deadLetterRecoverer;
+    }
+
+    @PostConstruct
+    public void init() {
+        pauseThreshold = Math.max(1, maxInFlight - maxPollRecords);
+        resumeThreshold = pauseThreshold / 2;
+    }
+
+    /**
+     * Submits a record for processing after all earlier records with the same key.
+     * Never blocks; once the pause threshold is reached the listener container
+     * is paused, so only the rest of the current poll is still submitted.
+     *
+     * @param listenerId The ID of the listener container the record came from
+     * @param record The record, published to the dead letter topic if the task fails
+     * @param key The ordering key of the record
+     * @param task The processing of the record
+     * @param acknowledgment Acknowledgment of the record, sent once the record is
+     *                       processed or dead-lettered
+     */
+    public void submit(String listenerId, ConsumerRecord<?, ?> record, Object key,
+                       Runnable task, Acknowledgment acknowledgment) {
+        if (inFlight.incrementAndGet() >= pauseThreshold) {
+            updatePause(listenerId);
+        }
+
+        CompletableFuture<Void> next = new CompletableFuture<>();
+        CompletableFuture<Void> previous = tails.put(key, next);
+        CompletableFuture<Void> ready = previous != null ? previous : CompletableFuture.completedFuture(null);
+
+        ready.whenCompleteAsync((ignored, error) -> {
+            boolean handled = false;
+            try {
+                task.run();
+                handled = true;
+            } catch (Exception e) {
+                logger.error("Error processing record with key {} at {}-{}@{}",
+                        key, record.topic(), record.partition(), record.offset(), e);
+                handled = deadLetter(record, e);
+            } finally {
+                tails.remove(key, next);
+                if (handled) {
+                    acknowledgment.acknowledge();
+                }
+                if (inFlight.decrementAndGet() <= resumeThreshold) {
+                    updatePause(listenerId);
+                }
+                next.complete(null);
+            }
+        }, consumerExecutor);
+    }
+
+    /**
+     * Gets the number of records currently queued or running.
+     *
+     * @return The number of records in flight
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Publishes a failed record to the dead letter topic.
+     *
+     * @return true if the record was published and can be acknowledged
+     */
+    private boolean deadLetter(ConsumerRecord<?, ?> record, Exception cause) {
+        try {
+            deadLetterRecoverer.accept(record, cause);
+            logger.warn("Published record {}-{}@{} to the dead letter topic",
+                    record.topic(), record.partition(), record.offset());
+            return true;
+        } catch (Exception e) {
+            logger.error("Unable to publish record {}-{}@{} to the dead letter topic, " +
+                            "it will be redelivered after the next rebalance",
+                    record.topic(), record.partition(), record.offset(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Pauses or resumes the listener container for the current number of records
+     * in flight. Serialized and based on the latest count, so a pause and a
+     * resume racing each other always leave the container in the right state.
+     */
+    private synchronized void updatePause(String listenerId) {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(listenerId);
+        if (container == null) {
+            return;
+        }
+
+        int current = inFlight.get();
+        if (current >= pauseThreshold && !container.isPauseRequested()) {
+            logger.debug("Pausing listener {} with {} records in flight", listenerId, current);
+            container.pause();
+        } else if (current <= resumeThreshold && container.isPauseRequested()) {
+            logger.debug("Resuming listener {} with {} records in flight", listenerId, current);
+            container.resume();
+        }
+    }
+}
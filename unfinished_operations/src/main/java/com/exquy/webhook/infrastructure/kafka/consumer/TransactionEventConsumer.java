@@ -8,12 +8,16 @@ import com.company.transactionrecovery.domain.service.transaction.StateManagerSe
 import com.company.transactionrecovery.domain.service.transaction.TransactionService;
 import com.company.transactionrecovery.domain.service.webhook.WebhookService;
 import com.company.transactionrecovery.infrastructure.kafka.dto.TransactionEventMessage;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -28,70 +32,119 @@ public class TransactionEventConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionEventConsumer.class);
 
+    private static final String PARALLEL_LISTENER_ID = "transaction-events-parallel";
+
     private final TransactionRepository transactionRepository;
     private final TransactionService transactionService;
     private final StateManagerService stateManagerService;
     private final WebhookService webhookService;
+    private final KeyOrderedRecordProcessor recordProcessor;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public TransactionEventConsumer(
             TransactionRepository transactionRepository,
             TransactionService transactionService,
             StateManagerService stateManagerService,
-            WebhookService webhookService) {
+            WebhookService webhookService,
+            KeyOrderedRecordProcessor recordProcessor,
+            PlatformTransactionManager transactionManager) {
         this.transactionRepository = transactionRepository;
         this.transactionService = transactionService;
         this.stateManagerService = stateManagerService;
         this.webhookService = webhookService;
+        this.recordProcessor = recordProcessor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * Listens for transaction event messages from Kafka and processes them.
+     * Not started when transaction.consumer.parallel-enabled is set, in which
+     * case consumeTransactionEventInParallel consumes the topic instead.
      *
      * @param message The transaction event message
      */
     @KafkaListener(
             topics = "${spring.kafka.topics.transaction-events}",
             groupId = "${spring.kafka.consumer.group-id}-transaction",
-            containerFactory = "transactionKafkaListenerContainerFactory")
+            containerFactory = "transactionKafkaListenerContainerFactory",
+            autoStartup = "#{!${transaction.consumer.parallel-enabled:false}}")
     @Transactional
     public void consumeTransactionEvent(TransactionEventMessage message) {
+        try {
+            processTransactionEvent(message);
+        } catch (Exception e) {
+            logger.error("Error processing transaction event: {}", message.getEventId(), e);
+        }
+    }
+
+    /**
+     * Listens for transaction event messages from Kafka and processes them on the
+     * consumer worker pool. Events of the same transaction are processed in order,
+     * events of different transactions concurrently, each in its own database
+     * transaction. An event whose processing fails is rolled back and published
+     * to the dead letter topic.
+     *
+     * @param record The transaction event record
+     * @param acknowledgment Acknowledgment of the record, sent once it is processed
+     */
+    @KafkaListener(
+            id = PARALLEL_LISTENER_ID,
+            idIsGroup = false,
+            topics = "${spring.kafka.topics.transaction-events}",
+            groupId = "${spring.kafka.consumer.group-id}-transaction",
+            containerFactory = "transactionParallelKafkaListenerContainerFactory",
+            autoStartup = "${transaction.consumer.parallel-enabled:false}")
+    public void consumeTransactionEventInParallel(ConsumerRecord<String, TransactionEventMessage> record,
+                                                  Acknowledgment acknowledgment) {
+        TransactionEventMessage message = record.value();
+        recordProcessor.submit(
+                PARALLEL_LISTENER_ID,
+                record,
+                message.getTransactionId(),
+                () -> transactionTemplate.executeWithoutResult(status -> processTransactionEvent(message)),
+                acknowledgment);
+    }
+
+    /**
+     * Processes a transaction event message.
+     *
+     * @param message The transaction event message
+     * @throws IllegalStateException if the transaction does not exist
+     */
+    private void processTransactionEvent(TransactionEventMessage message) {
         logger.info("Received transaction event: {}, type: {}, transaction: {}",
                 message.getEventId(),
                 message.getEventType(),
                 message.getTransactionId());
 
-        try {
-            // Look up the transaction
-            Transaction transaction = transactionRepository.findById(message.getTransactionId())
-                    .orElseThrow(() -> new IllegalStateException(
-                            "Transaction not found: " + message.getTransactionId()));
-
-            // Process the event based on type
-            switch (message.getEventType()) {
-                case "TRANSACTION_CREATED":
-                    processTransactionCreated(transaction, message);
-                    break;
-                case "TRANSACTION_STATUS_CHANGED":
-                    processTransactionStatusChanged(transaction, message);
-                    break;
-                case "TRANSACTION_RETRY":
-                    processTransactionRetry(transaction, message);
-                    break;
-                case "TRANSACTION_RECOVERY":
-                    processTransactionRecovery(transaction, message);
-                    break;
-                case "TRANSACTION_MANUALLY_RESOLVED":
-                    processTransactionManuallyResolved(transaction, message);
-                    break;
-                case "TRANSACTION_RECONCILED":
-                    processTransactionReconciled(transaction, message);
-                    break;
-                default:
-                    logger.warn("Unknown transaction event type: {}", message.getEventType());
-            }
-        } catch (Exception e) {
-            logger.error("Error processing transaction event: {}", message.getEventId(), e);
+        // Look up the transaction
+        Transaction transaction = transactionRepository.findById(message.getTransactionId())
+                .orElseThrow(() -> new IllegalStateException(
+                        "Transaction not found: " + message.getTransactionId()));
+
+        // Process the event based on type
+        switch (message.getEventType()) {
+            case "TRANSACTION_CREATED":
+                processTransactionCreated(transaction, message);
+                break;
+            case "TRANSACTION_STATUS_CHANGED":
+                processTransactionStatusChanged(transaction, message);
+                break;
+            case "TRANSACTION_RETRY":
+                processTransactionRetry(transaction, message);
+                break;
+            case "TRANSACTION_RECOVERY":
+                processTransactionRecovery(transaction, message);
+                break;
+            case "TRANSACTION_MANUALLY_RESOLVED":
+                processTransactionManuallyResolved(transaction, message);
+                break;
+            case "TRANSACTION_RECONCILED":
+                processTransactionReconciled(transaction, message);
+                break;
+            default:
+                logger.warn("Unknown transaction event type: {}", message.getEventType());
         }
     }
 
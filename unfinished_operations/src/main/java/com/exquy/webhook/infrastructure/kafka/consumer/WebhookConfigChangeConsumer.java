@@ -0,0 +1,81 @@
+package com.exquy.webhook.infrastructure.kafka.consumer;
+
+import com.company.transactionrecovery.domain.service.webhook.WebhookBulkheadRegistry;
+import com.company.transactionrecovery.domain.service.webhook.WebhookCircuitBreakerRegistry;
+import com.company.transactionrecovery.domain.service.webhook.WebhookRoutingTable;
+import com.company.transactionrecovery.domain.service.webhook.WebhookStatsAggregator;
+import com.company.transactionrecovery.infrastructure.kafka.dto.WebhookConfigChangeMessage;
+import com.company.transactionrecovery.infrastructure.scheduler.WebhookRetryTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer for webhook configuration changes made on other nodes.
+ * Every node assigns itself the partition of the compacted changes topic,
+ * replays it from the start without a consumer group, and refreshes the
+ * affected entries of its routing table. Deleted webhooks also lose their
+ * per-webhook state on this node.
+ */
+@Component
+public class WebhookConfigChangeConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookConfigChangeConsumer.class);
+
+    private final WebhookRoutingTable routingTable;
+    private final WebhookRetryTimingWheel retryTimingWheel;
+    private final WebhookBulkheadRegistry bulkheadRegistry;
+    private final WebhookCircuitBreakerRegistry circuitBreakerRegistry;
+    private final WebhookStatsAggregator statsAggregator;
+
+    @Autowired
+    public WebhookConfigChangeConsumer(
+            WebhookRoutingTable routingTable,
+            WebhookRetryTimingWheel retryTimingWheel,
+            WebhookBulkheadRegistry bulkheadRegistry,
+            WebhookCircuitBreakerRegistry circuitBreakerRegistry,
+            WebhookStatsAggregator statsAggregator) {
+        this.routingTable = routingTable;
+        this.retryTimingWheel = retryTimingWheel;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.statsAggregator = statsAggregator;
+    }
+
+    /**
+     * Applies a webhook configuration change to the local routing table.
+     *
+     * @param message The change message
+     */
+    @KafkaListener(
+            topicPartitions = @TopicPartition(
+                    topic = "${spring.kafka.topics.webhook-config-changes}",
+                    partitionOffsets = @PartitionOffset(partition = "0", initialOffset = "0")),
+            containerFactory = "webhookConfigChangeKafkaListenerContainerFactory")
+    public void consumeConfigChange(WebhookConfigChangeMessage message) {
+        // Changes made on this node are already applied
+        if (retryTimingWheel.getNodeId().equals(message.getSourceNodeId())) {
+            return;
+        }
+
+        logger.debug("Received configuration change of webhook {} from node {}",
+                message.getWebhookId(), message.getSourceNodeId());
+
+        try {
+            if (message.isDeleted()) {
+                routingTable.remove(message.getWebhookId());
+                bulkheadRegistry.remove(message.getWebhookId());
+                circuitBreakerRegistry.remove(message.getWebhookId());
+                statsAggregator.remove(message.getWebhookId());
+            } else {
+                routingTable.refresh(message.getWebhookId());
+            }
+        } catch (Exception e) {
+            logger.error("Error applying configuration change of webhook {}", message.getWebhookId(), e);
+        }
+    }
+}
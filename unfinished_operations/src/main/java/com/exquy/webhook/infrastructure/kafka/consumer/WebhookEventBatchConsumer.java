@@ -0,0 +1,194 @@
+package com.exquy.webhook.infrastructure.kafka.consumer;
+
+import com.company.transactionrecovery.domain.enums.WebhookDeliveryStatus;
+import com.company.transactionrecovery.domain.model.WebhookConfig;
+import com.company.transactionrecovery.domain.model.WebhookDelivery;
+import com.company.transactionrecovery.domain.repository.WebhookDeliveryBatchRepository;
+import com.company.transactionrecovery.domain.repository.WebhookDeliveryBatchRepository.NewDelivery;
+import com.company.transactionrecovery.domain.service.webhook.WebhookDispatcher;
+import com.company.transactionrecovery.domain.service.webhook.WebhookRoutingTable;
+import com.company.transactionrecovery.infrastructure.kafka.dto.WebhookEventMessage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Batch consumer for webhook events from Kafka, enabled with
+ * webhook.consumer.batch-enabled=true in place of WebhookEventConsumer.
+ * Each poll is handled as one unit: the PENDING deliveries of all new events
+ * are inserted in a single statement that also skips already known event IDs,
+ * the batch's offsets are committed once that statement has returned, and the
+ * deliveries are then dispatched concurrently.
+ */
+@Component
+@ConditionalOnProperty(name = "webhook.consumer.batch-enabled", havingValue = "true")
+public class WebhookEventBatchConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookEventBatchConsumer.class);
+
+    private final WebhookRoutingTable routingTable;
+    private final WebhookDeliveryBatchRepository deliveryBatchRepository;
+    private final WebhookDispatcher webhookDispatcher;
+    private final WebhookEventConsumer recordConsumer;
+
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+
+    @Autowired
+    public WebhookEventBatchConsumer(
+            WebhookRoutingTable routingTable,
+            WebhookDeliveryBatchRepository deliveryBatchRepository,
+            WebhookDispatcher webhookDispatcher,
+            WebhookEventConsumer recordConsumer,
+            MeterRegistry meterRegistry) {
+        this.routingTable = routingTable;
+        this.deliveryBatchRepository = deliveryBatchRepository;
+        this.webhookDispatcher = webhookDispatcher;
+        this.recordConsumer = recordConsumer;
+        this.batchTimer = Timer.builder("webhook.consumer.processing")
+                .tag("mode", "batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("webhook.consumer.batch.size")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Listens for batches of webhook event messages from Kafka and processes them.
+     * If the deliveries cannot be inserted the batch is not acknowledged and the
+     * exception is left to the container's error handler, so it is redelivered.
+     *
+     * @param messages The webhook event messages of one poll
+     * @param acknowledgment Acknowledgment for the offsets of the batch
+     */
+    @KafkaListener(
+            topics = "${spring.kafka.topics.webhook-events}",
+            groupId = "${spring.kafka.consumer.group-id}-webhook",
+            containerFactory = "webhookBatchKafkaListenerContainerFactory")
+    public void consumeWebhookEvents(List<WebhookEventMessage> messages, Acknowledgment acknowledgment) {
+        logger.debug("Received batch of {} webhook events", messages.size());
+        Timer.Sample sample = Timer.start();
+
+        // Keep one message per event ID, in arrival order, for active webhooks only
+        Map<UUID, PendingEvent> events = new LinkedHashMap<>();
+
+        for (WebhookEventMessage message : messages) {
+            WebhookConfig webhookConfig = routingTable.findById(message.getWebhookId()).orElse(null);
+
+            if (webhookConfig == null) {
+                logger.error("Webhook configuration not found for event {}: {}",
+                        message.getEventId(), message.getWebhookId());
+                continue;
+            }
+
+            if (!webhookConfig.getIsActive()) {
+                logger.warn("Skipping event {} for inactive webhook: {}",
+                        message.getEventId(), message.getWebhookId());
+                continue;
+            }
+
+            byte[] payload = webhookDispatcher.serializePayload(message.getPayload());
+            if (payload == null) {
+                logger.error("Skipping event {} with unserializable payload", message.getEventId());
+                continue;
+            }
+
+            events.putIfAbsent(message.getEventId(), new PendingEvent(message, webhookConfig, payload));
+        }
+
+        List<NewDelivery> rows = new ArrayList<>(events.size());
+        for (PendingEvent event : events.values()) {
+            WebhookEventMessage message = event.message;
+            rows.add(new NewDelivery(
+                    message.getEventId(),
+                    message.getWebhookId(),
+                    message.getTransactionId(),
+                    message.getEventType().name(),
+                    new String(event.payload, StandardCharsets.UTF_8)));
+        }
+
+        // Existence check and insert in one statement; redelivered events are skipped
+        Set<UUID> insertedIds = deliveryBatchRepository.insertPendingDeliveries(rows);
+
+        // The PENDING rows are durable, so the batch no longer needs to be redelivered
+        acknowledgment.acknowledge();
+
+        if (insertedIds.size() < rows.size()) {
+            logger.info("Skipped {} webhook events that already have a delivery",
+                    rows.size() - insertedIds.size());
+        }
+
+        for (PendingEvent event : events.values()) {
+            if (insertedIds.contains(event.message.getEventId())) {
+                dispatch(event);
+            }
+        }
+
+        sample.stop(batchTimer);
+        batchSizes.record(messages.size());
+    }
+
+    /**
+     * Hands a newly inserted delivery to the non-blocking dispatcher. No
+     * transaction is active here, so the dispatch starts immediately and all
+     * deliveries of the batch are in flight at the same time.
+     */
+    private void dispatch(PendingEvent event) {
+        WebhookEventMessage message = event.message;
+        LocalDateTime now = LocalDateTime.now();
+
+        WebhookDelivery delivery = WebhookDelivery.builder()
+                .id(message.getEventId())
+                .webhookId(message.getWebhookId())
+                .transactionId(message.getTransactionId())
+                .eventType(message.getEventType())
+                .deliveryStatus(WebhookDeliveryStatus.PENDING)
+                .payload(message.getPayload())
+                .attemptCount(0)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        webhookDispatcher.dispatch(delivery, event.config, event.payload)
+                .whenComplete((delivered, error) -> {
+                    if (error == null || WebhookDispatcher.isAborted(error)) {
+                        return;
+                    }
+
+                    Throwable cause = WebhookDispatcher.unwrap(error);
+                    logger.error("Error delivering webhook: {}", delivery.getId(), cause);
+                    recordConsumer.handleDeliveryFailure(delivery, cause);
+                });
+    }
+
+    /**
+     * A new event of the batch with its resolved webhook and serialized payload.
+     */
+    private static final class PendingEvent {
+        private final WebhookEventMessage message;
+        private final WebhookConfig config;
+        private final byte[] payload;
+
+        PendingEvent(WebhookEventMessage message, WebhookConfig config, byte[] payload) {
+            this.message = message;
+            this.config = config;
+            this.payload = payload;
+        }
+    }
+}
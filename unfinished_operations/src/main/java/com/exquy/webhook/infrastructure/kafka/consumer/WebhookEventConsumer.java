@@ -3,13 +3,16 @@ package com.exquy.webhook.infrastructure.kafka.consumer;
 import com.company.transactionrecovery.domain.enums.WebhookDeliveryStatus;
 import com.company.transactionrecovery.domain.model.WebhookConfig;
 import com.company.transactionrecovery.domain.model.WebhookDelivery;
-import com.company.transactionrecovery.domain.repository.WebhookConfigRepository;
 import com.company.transactionrecovery.domain.repository.WebhookDeliveryRepository;
+import com.company.transactionrecovery.domain.service.webhook.WebhookDeliveryJournal;
+import com.company.transactionrecovery.domain.service.webhook.WebhookDispatcher;
+import com.company.transactionrecovery.domain.service.webhook.WebhookRoutingTable;
 import com.company.transactionrecovery.domain.service.webhook.WebhookService;
-import com.company.transactionrecovery.infrastructure.http.WebhookClient;
+import com.company.transactionrecovery.domain.service.webhook.WebhookStatsAggregator;
 import com.company.transactionrecovery.infrastructure.kafka.dto.WebhookEventMessage;
-import com.company.transactionrecovery.util.SignatureUtils;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.company.transactionrecovery.infrastructure.scheduler.WebhookRetryTimingWheel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,7 +23,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Consumer for webhook events from Kafka.
@@ -32,41 +34,53 @@ public class WebhookEventConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(WebhookEventConsumer.class);
 
-    private final WebhookConfigRepository webhookConfigRepository;
+    private final WebhookRoutingTable routingTable;
     private final WebhookDeliveryRepository deliveryRepository;
     private final WebhookService webhookService;
-    private final WebhookClient webhookClient;
-    private final ObjectMapper objectMapper;
+    private final WebhookDispatcher webhookDispatcher;
+    private final WebhookDeliveryJournal deliveryJournal;
+    private final WebhookStatsAggregator statsAggregator;
+    private final WebhookRetryTimingWheel retryTimingWheel;
+    private final Timer recordTimer;
 
     @Value("${webhook.retry.max-attempts:5}")
     private int maxRetryAttempts;
 
-    @Value("${webhook.signature.algorithm:HmacSHA256}")
-    private String signatureAlgorithm;
-
     @Autowired
     public WebhookEventConsumer(
-            WebhookConfigRepository webhookConfigRepository,
+            WebhookRoutingTable routingTable,
             WebhookDeliveryRepository deliveryRepository,
             WebhookService webhookService,
-            WebhookClient webhookClient,
-            ObjectMapper objectMapper) {
-        this.webhookConfigRepository = webhookConfigRepository;
+            WebhookDispatcher webhookDispatcher,
+            WebhookDeliveryJournal deliveryJournal,
+            WebhookStatsAggregator statsAggregator,
+            WebhookRetryTimingWheel retryTimingWheel,
+            MeterRegistry meterRegistry) {
+        this.routingTable = routingTable;
         this.deliveryRepository = deliveryRepository;
         this.webhookService = webhookService;
-        this.webhookClient = webhookClient;
-        this.objectMapper = objectMapper;
+        this.webhookDispatcher = webhookDispatcher;
+        this.deliveryJournal = deliveryJournal;
+        this.statsAggregator = statsAggregator;
+        this.retryTimingWheel = retryTimingWheel;
+        this.recordTimer = Timer.builder("webhook.consumer.processing")
+                .tag("mode", "record")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
     }
 
     /**
      * Listens for webhook event messages from Kafka and processes them.
+     * Not started when webhook.consumer.batch-enabled is set, in which case
+     * WebhookEventBatchConsumer consumes the topic instead.
      *
      * @param message The webhook event message
      */
     @KafkaListener(
             topics = "${spring.kafka.topics.webhook-events}",
             groupId = "${spring.kafka.consumer.group-id}-webhook",
-            containerFactory = "webhookKafkaListenerContainerFactory")
+            containerFactory = "webhookKafkaListenerContainerFactory",
+            autoStartup = "#{!${webhook.consumer.batch-enabled:false}}")
     @Transactional
     public void consumeWebhookEvent(WebhookEventMessage message) {
         logger.info("Received webhook event: {}, type: {}, webhook: {}",
@@ -74,9 +88,11 @@ public class WebhookEventConsumer {
                 message.getEventType(),
                 message.getWebhookId());
 
+        Timer.Sample sample = Timer.start();
+
         try {
             // Get webhook configuration
-            WebhookConfig webhookConfig = webhookConfigRepository.findById(message.getWebhookId())
+            WebhookConfig webhookConfig = routingTable.findById(message.getWebhookId())
                     .orElseThrow(() -> new IllegalStateException(
                             "Webhook configuration not found: " + message.getWebhookId()));
 
@@ -106,6 +122,8 @@ public class WebhookEventConsumer {
 
         } catch (Exception e) {
             logger.error("Error processing webhook event: {}", message.getEventId(), e);
+        } finally {
+            sample.stop(recordTimer);
         }
     }
 
@@ -129,6 +147,9 @@ public class WebhookEventConsumer {
 
     /**
      * Processes a webhook delivery by sending the notification.
+     * The delivery is handed to the non-blocking dispatcher, which starts it once
+     * the listener transaction has committed, so the listener thread never waits
+     * on the subscriber.
      *
      * @param delivery The webhook delivery to process
      * @param webhookConfig The webhook configuration
@@ -136,63 +157,26 @@ public class WebhookEventConsumer {
     private void processDelivery(WebhookDelivery delivery, WebhookConfig webhookConfig) {
         logger.info("Processing webhook delivery: {}", delivery.getId());
 
-        try {
-            // Update status to PROCESSING
-            delivery.setDeliveryStatus(WebhookDeliveryStatus.PROCESSING);
-            delivery.recordAttempt(WebhookDeliveryStatus.PROCESSING, null, null);
-            delivery = deliveryRepository.save(delivery);
-
-            // Convert payload to JSON
-            String payloadJson = objectMapper.writeValueAsString(delivery.getPayload());
-
-            // Generate signature
-            String signature = webhookService.generateSignature(payloadJson, webhookConfig.getSecurityToken());
-
-            // Prepare headers
-            Map<String, Object> headers = new HashMap<>();
-            headers.put("X-Webhook-Signature", signature);
-            headers.put("X-Webhook-ID", webhookConfig.getId().toString());
-            headers.put("X-Delivery-ID", delivery.getId().toString());
-            headers.put("X-Event-Type", delivery.getEventType().toString());
-            headers.put("Content-Type", "application/json");
-
-            // Add replay protection
-            String replayProtection = createReplayProtection();
-            headers.put("X-Webhook-Timestamp", replayProtection);
-
-            // Send the webhook
-            WebhookClient.WebhookResponse response = webhookClient.sendWebhook(
-                    webhookConfig.getCallbackUrl(),
-                    payloadJson,
-                    headers);
-
-            // Update delivery with response
-            delivery.recordAttempt(
-                    WebhookDeliveryStatus.DELIVERED,
-                    response.getStatusCode(),
-                    response.getBody());
-            deliveryRepository.save(delivery);
+        webhookDispatcher.dispatch(delivery, webhookConfig)
+                .whenComplete((delivered, error) -> {
+                    if (error == null || WebhookDispatcher.isAborted(error)) {
+                        return;
+                    }
 
-            // Update webhook stats
-            webhookConfig.recordSuccess();
-            webhookConfigRepository.save(webhookConfig);
-
-            logger.info("Webhook delivery successful: {}, status code: {}",
-                    delivery.getId(), response.getStatusCode());
-
-        } catch (Exception e) {
-            logger.error("Error delivering webhook: {}", delivery.getId(), e);
-            handleDeliveryFailure(delivery, e);
-        }
+                    Throwable cause = WebhookDispatcher.unwrap(error);
+                    logger.error("Error delivering webhook: {}", delivery.getId(), cause);
+                    handleDeliveryFailure(delivery, cause);
+                });
     }
 
     /**
      * Handles a failure in webhook delivery.
+     * Also used by WebhookEventBatchConsumer.
      *
      * @param delivery The webhook delivery that failed
      * @param error The error that occurred
      */
-    private void handleDeliveryFailure(WebhookDelivery delivery, Exception error) {
+    void handleDeliveryFailure(WebhookDelivery delivery, Throwable error) {
         try {
             // Build error details
             Map<String, Object> errorDetails = new HashMap<>();
@@ -209,35 +193,21 @@ public class WebhookEventConsumer {
             } else {
                 // Schedule retry
                 int delaySeconds = webhookService.computeNextRetryDelay(delivery);
-                delivery.scheduleRetry(delivery.getLastAttemptAt().plusSeconds(delaySeconds));
+                delivery.scheduleRetry(delivery.getLastAttemptAt().plusSeconds(delaySeconds),
+                        retryTimingWheel.getNodeId());
                 logger.info("Scheduled retry for webhook delivery: {}, next attempt in {} seconds",
                         delivery.getId(), delaySeconds);
             }
 
-            // Save updated delivery
-            deliveryRepository.save(delivery);
+            // Record updated delivery and arm its retry timer
+            deliveryJournal.record(delivery);
+            retryTimingWheel.schedule(delivery);
 
             // Update webhook config stats
-            WebhookConfig webhookConfig = webhookConfigRepository.findById(delivery.getWebhookId())
-                    .orElse(null);
-            if (webhookConfig != null) {
-                webhookConfig.recordFailure();
-                webhookConfigRepository.save(webhookConfig);
-            }
+            statsAggregator.recordFailure(delivery.getWebhookId());
 
         } catch (Exception e) {
             logger.error("Error handling webhook delivery failure for {}", delivery.getId(), e);
         }
     }
-
-    /**
-     * Creates a replay protection timestamp.
-     *
-     * @return A timestamp string for replay protection
-     */
-    private String createReplayProtection() {
-        long timestamp = System.currentTimeMillis();
-        String nonce = UUID.randomUUID().toString();
-        return "t=" + timestamp + ",n=" + nonce;
-    }
 }
@@ -2,19 +2,20 @@ package com.exquy.webhook.infrastructure.kafka.producer;
 
 import com.company.transactionrecovery.domain.enums.TransactionStatus;
 import com.company.transactionrecovery.domain.model.Transaction;
+import com.company.transactionrecovery.domain.repository.TransactionOutboxRepository;
 import com.company.transactionrecovery.infrastructure.kafka.dto.TransactionEventMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
-import org.springframework.util.concurrent.ListenableFuture;
-import org.springframework.util.concurrent.ListenableFutureCallback;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -22,20 +23,25 @@ import java.util.UUID;
  * Producer for transaction events to be sent through Kafka.
  * This component publishes transaction-related event messages to Kafka topics,
  * which are then consumed by various services for asynchronous processing.
+ * Messages are written to the transaction outbox in the caller's database
+ * transaction and sent by TransactionOutboxRelay once it has committed, so
+ * only committed changes are published and callers never wait on Kafka.
  */
 @Component
 public class TransactionEventProducer {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionEventProducer.class);
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
 
     @Value("${spring.kafka.topics.transaction-events}")
     private String transactionEventsTopic;
 
     @Autowired
-    public TransactionEventProducer(KafkaTemplate<String, Object> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public TransactionEventProducer(TransactionOutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -61,6 +67,35 @@ public class TransactionEventProducer {
                 transaction.getId());
     }
 
+    /**
+     * Sends TRANSACTION_CREATED events for a batch of new transactions.
+     *
+     * @param transactions The newly created transactions
+     */
+    public void sendTransactionCreatedEvents(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        List<TransactionEventMessage> messages = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            messages.add(TransactionEventMessage.builder()
+                    .eventId(UUID.randomUUID())
+                    .eventType("TRANSACTION_CREATED")
+                    .transactionId(transaction.getId())
+                    .originSystem(transaction.getOriginSystem())
+                    .currentStatus(transaction.getStatus())
+                    .previousStatus(null)
+                    .timestamp(LocalDateTime.now())
+                    .payload(createPayload(transaction, null))
+                    .build());
+        }
+
+        sendTransactionEventMessages(messages);
+
+        logger.info("Sent {} TRANSACTION_CREATED events", transactions.size());
+    }
+
     /**
      * Sends an event when a transaction's status changes.
      *
@@ -87,6 +122,40 @@ public class TransactionEventProducer {
                 transaction.getId(), previousStatus, transaction.getStatus());
     }
 
+    /**
+     * Sends status change events for a batch of transactions that moved from the
+     * same previous status.
+     *
+     * @param transactions The transactions whose status changed
+     * @param previousStatus The previous status of the transactions
+     */
+    public void sendTransactionStatusChangedEvents(
+            List<Transaction> transactions, TransactionStatus previousStatus) {
+
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        List<TransactionEventMessage> messages = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            messages.add(TransactionEventMessage.builder()
+                    .eventId(UUID.randomUUID())
+                    .eventType("TRANSACTION_STATUS_CHANGED")
+                    .transactionId(transaction.getId())
+                    .originSystem(transaction.getOriginSystem())
+                    .currentStatus(transaction.getStatus())
+                    .previousStatus(previousStatus)
+                    .timestamp(LocalDateTime.now())
+                    .payload(createPayload(transaction, previousStatus))
+                    .build());
+        }
+
+        sendTransactionEventMessages(messages);
+
+        logger.info("Sent {} TRANSACTION_STATUS_CHANGED events (from {})",
+                transactions.size(), previousStatus);
+    }
+
     /**
      * Sends an event when a transaction is retried.
      *
@@ -253,7 +322,7 @@ public class TransactionEventProducer {
     }
 
     /**
-     * Sends a transaction event message to Kafka.
+     * Writes a transaction event message to the outbox.
      *
      * @param message The message to send
      */
@@ -262,27 +331,36 @@ public class TransactionEventProducer {
             // Use transaction ID as key for partitioning
             String key = message.getTransactionId().toString();
             
-            ListenableFuture<SendResult<String, Object>> future = 
-                    kafkaTemplate.send(transactionEventsTopic, key, message);
+            outboxRepository.append(transactionEventsTopic, key, objectMapper.writeValueAsString(message));
             
-            future.addCallback(new ListenableFutureCallback<SendResult<String, Object>>() {
-                @Override
-                public void onSuccess(SendResult<String, Object> result) {
-                    logger.debug("Sent transaction event message {} to topic {} with offset {}",
-                            message.getEventId(), 
-                            result.getRecordMetadata().topic(),
-                            result.getRecordMetadata().offset());
-                }
-                
-                @Override
-                public void onFailure(Throwable ex) {
-                    logger.error("Unable to send transaction event message {} to topic {}",
-                            message.getEventId(), transactionEventsTopic, ex);
-                }
-            });
-        } catch (Exception e) {
+            logger.debug("Queued transaction event message {} for topic {}",
+                    message.getEventId(), transactionEventsTopic);
+        } catch (JsonProcessingException e) {
             logger.error("Error during transaction event message production", e);
-            throw e;
+            throw new IllegalStateException("Unable to serialize transaction event message", e);
         }
     }
+
+    /**
+     * Writes several transaction event messages to the outbox in one batch.
+     *
+     * @param messages The messages to send
+     */
+    private void sendTransactionEventMessages(List<TransactionEventMessage> messages) {
+        List<Object[]> rows = new ArrayList<>(messages.size());
+        try {
+            for (TransactionEventMessage message : messages) {
+                rows.add(new Object[] {
+                        transactionEventsTopic,
+                        message.getTransactionId().toString(),
+                        objectMapper.writeValueAsString(message)
+                });
+            }
+        } catch (JsonProcessingException e) {
+            logger.error("Error during transaction event message production", e);
+            throw new IllegalStateException("Unable to serialize transaction event message", e);
+        }
+
+        outboxRepository.appendAll(rows);
+    }
 }
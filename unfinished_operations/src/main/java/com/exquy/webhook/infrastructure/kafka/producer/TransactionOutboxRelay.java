@@ -0,0 +1,207 @@
+package com.exquy.webhook.infrastructure.kafka.producer;
+
+import com.company.transactionrecovery.domain.repository.TransactionOutboxRepository;
+import com.company.transactionrecovery.domain.repository.TransactionOutboxRepository.OutboxEntry;
+import com.company.transactionrecovery.infrastructure.kafka.dto.TransactionEventMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relays transaction events from the outbox table to Kafka.
+ * Each batch is claimed in a short database transaction, sent with no
+ * transaction or connection held, and deleted once Kafka has acknowledged
+ * every record. All records of a batch are handed to the producer before
+ * waiting on any of them, so they share producer batches. Nothing is claimed
+ * while another relay holds a live claim, so only one relay in the cluster
+ * sends at a time and events keep their order. A batch that fails, or whose
+ * relay dies, is claimed and sent again once its lease expires, so events are
+ * delivered at least once and consumers must tolerate duplicate event IDs.
+ * The relay runs on its own scheduler thread, since waiting on Kafka would
+ * otherwise delay every other scheduled task.
+ */
+@Component
+public class TransactionOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionOutboxRelay.class);
+
+    private final TransactionOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate claimTransaction;
+
+    @Value("${transaction.outbox.relay-interval-ms:200}")
+    private long relayIntervalMs;
+
+    @Value("${transaction.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${transaction.outbox.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    // Must outlast the send timeout, or a slow batch may be claimed and sent twice
+    @Value("${transaction.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${webhook.node-id:}")
+    private String relayId;
+
+    private ThreadPoolTaskScheduler relayScheduler;
+
+    private final AtomicLong eventsRelayed = new AtomicLong();
+    private final AtomicLong relayFailures = new AtomicLong();
+
+    @Autowired
+    public TransactionOutboxRelay(
+            TransactionOutboxRepository outboxRepository,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Resolves the relay identifier and starts relaying on a dedicated thread.
+     */
+    @PostConstruct
+    public void init() {
+        if (relayId == null || relayId.isBlank()) {
+            relayId = UUID.randomUUID().toString();
+        }
+        if (leaseMs <= sendTimeoutMs) {
+            logger.warn("Outbox lease of {}ms does not outlast the send timeout of {}ms; " +
+                    "slow batches may be relayed twice", leaseMs, sendTimeoutMs);
+        }
+
+        relayScheduler = new ThreadPoolTaskScheduler();
+        relayScheduler.setPoolSize(1);
+        relayScheduler.setThreadNamePrefix("outbox-relay-");
+        relayScheduler.setWaitForTasksToCompleteOnShutdown(true);
+        relayScheduler.setAwaitTerminationSeconds(
+                (int) TimeUnit.MILLISECONDS.toSeconds(sendTimeoutMs) + 1);
+        relayScheduler.initialize();
+        relayScheduler.scheduleWithFixedDelay(this::relay, Duration.ofMillis(relayIntervalMs));
+    }
+
+    /**
+     * Stops relaying after the batch in flight, if any. Unsent claims expire
+     * and are relayed by another node or after restart.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (relayScheduler != null) {
+            relayScheduler.shutdown();
+        }
+    }
+
+    /**
+     * Drains the outbox, one claimed batch at a time, until it is empty or
+     * another relay is active.
+     */
+    public void relay() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (Exception e) {
+            relayFailures.incrementAndGet();
+            logger.error("Error relaying transaction events from the outbox", e);
+        }
+    }
+
+    /**
+     * Claims, sends and deletes one batch of events.
+     *
+     * @return The number of events relayed
+     */
+    private int relayBatch() {
+        List<OutboxEntry> entries = claimTransaction.execute(
+                status -> outboxRepository.claimOldest(relayId, batchSize, leaseMs));
+        if (entries == null || entries.isEmpty()) {
+            return 0;
+        }
+
+        List<ListenableFuture<SendResult<String, Object>>> futures = new ArrayList<>(entries.size());
+        List<Long> ids = new ArrayList<>(entries.size());
+
+        for (OutboxEntry entry : entries) {
+            TransactionEventMessage message = readMessage(entry);
+            if (message != null) {
+                futures.add(kafkaTemplate.send(entry.getTopic(), entry.getKey(), message));
+            }
+            ids.add(entry.getId());
+        }
+
+        kafkaTemplate.flush();
+
+        for (ListenableFuture<SendResult<String, Object>> future : futures) {
+            try {
+                future.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while relaying transaction events", e);
+            } catch (Exception e) {
+                throw new IllegalStateException("Unable to relay transaction events to Kafka", e);
+            }
+        }
+
+        // A single statement, so it commits on its own without holding a transaction open
+        int deleted = outboxRepository.delete(ids, relayId);
+        if (deleted < ids.size()) {
+            logger.warn("Outbox claim expired while relaying; {} events may be relayed twice",
+                    ids.size() - deleted);
+        }
+        eventsRelayed.addAndGet(entries.size());
+
+        logger.debug("Relayed {} transaction events from the outbox", entries.size());
+        return entries.size();
+    }
+
+    /**
+     * Reads the message of an event. An event that cannot be read would block
+     * the outbox forever, so it is logged and dropped instead.
+     */
+    private TransactionEventMessage readMessage(OutboxEntry entry) {
+        try {
+            return objectMapper.readValue(entry.getPayload(), TransactionEventMessage.class);
+        } catch (Exception e) {
+            logger.error("Dropping unreadable outbox event {}: {}", entry.getId(), entry.getPayload(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Gets relay statistics.
+     *
+     * @return Map of relay statistics
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "eventsRelayed", eventsRelayed.get(),
+                "relayFailures", relayFailures.get(),
+                "pendingEvents", outboxRepository.count());
+    }
+}
@@ -0,0 +1,76 @@
+package com.exquy.webhook.infrastructure.kafka.producer;
+
+import com.company.transactionrecovery.infrastructure.kafka.dto.WebhookConfigChangeMessage;
+import com.company.transactionrecovery.infrastructure.scheduler.WebhookRetryTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Producer for webhook configuration changes.
+ * Notifies the other nodes that a webhook was registered, updated or deleted,
+ * so they can refresh their routing tables.
+ */
+@Component
+public class WebhookConfigChangeProducer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookConfigChangeProducer.class);
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final WebhookRetryTimingWheel retryTimingWheel;
+
+    @Value("${spring.kafka.topics.webhook-config-changes}")
+    private String configChangesTopic;
+
+    @Autowired
+    public WebhookConfigChangeProducer(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            WebhookRetryTimingWheel retryTimingWheel) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.retryTimingWheel = retryTimingWheel;
+    }
+
+    /**
+     * Publishes a change to a webhook configuration.
+     * Failures are only logged; other nodes catch up on their next full reload.
+     *
+     * @param webhookId The webhook ID
+     * @param deleted Whether the webhook was deleted
+     */
+    public void publishChange(UUID webhookId, boolean deleted) {
+        WebhookConfigChangeMessage message = WebhookConfigChangeMessage.builder()
+                .webhookId(webhookId)
+                .deleted(deleted)
+                .sourceNodeId(retryTimingWheel.getNodeId())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        try {
+            ListenableFuture<SendResult<String, Object>> future =
+                    kafkaTemplate.send(configChangesTopic, webhookId.toString(), message);
+
+            future.addCallback(new ListenableFutureCallback<SendResult<String, Object>>() {
+                @Override
+                public void onSuccess(SendResult<String, Object> result) {
+                    logger.debug("Published configuration change of webhook {}", webhookId);
+                }
+
+                @Override
+                public void onFailure(Throwable ex) {
+                    logger.error("Unable to publish configuration change of webhook {}", webhookId, ex);
+                }
+            });
+        } catch (Exception e) {
+            logger.error("Error publishing configuration change of webhook {}", webhookId, e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.exquy.webhook.infrastructure.scheduler;
 
 import com.company.transactionrecovery.domain.service.monitor.AlertService;
 import com.company.transactionrecovery.domain.service.monitor.AnomalyDetectionService;
+import com.company.transactionrecovery.domain.service.monitor.DashboardMetricsMaterializer;
 import com.company.transactionrecovery.domain.service.monitor.TransactionMonitorService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +27,7 @@ public class TransactionMonitorScheduler {
     private final TransactionMonitorService monitorService;
     private final AnomalyDetectionService anomalyDetectionService;
     private final AlertService alertService;
+    private final DashboardMetricsMaterializer metricsMaterializer;
 
     // Flags to track task execution
     private final AtomicBoolean monitoringInProgress = new AtomicBoolean(false);
@@ -42,10 +44,12 @@ public class TransactionMonitorScheduler {
     public TransactionMonitorScheduler(
             TransactionMonitorService monitorService,
             AnomalyDetectionService anomalyDetectionService,
-            AlertService alertService) {
+            AlertService alertService,
+            DashboardMetricsMaterializer metricsMaterializer) {
         this.monitorService = monitorService;
         this.anomalyDetectionService = anomalyDetectionService;
         this.alertService = alertService;
+        this.metricsMaterializer = metricsMaterializer;
     }
 
     /**
@@ -158,8 +162,8 @@ public class TransactionMonitorScheduler {
         try {
             Map<String, Object> results = monitorService.runReconciliationProcess();
             
-            int processed = (int) results.getOrDefault("total_transactions_processed", 0);
-            int reconciled = (int) results.getOrDefault("transactions_reconciled", 0);
+            long processed = ((Number) results.getOrDefault("total_transactions_processed", 0L)).longValue();
+            long reconciled = ((Number) results.getOrDefault("transactions_reconciled", 0L)).longValue();
             int manual = (int) results.getOrDefault("transactions_requiring_manual_intervention", 0);
             
             logger.info("Daily reconciliation completed: processed={}, reconciled={}, manual={}",
@@ -177,6 +181,23 @@ public class TransactionMonitorScheduler {
         }
     }
 
+    /**
+     * Scheduled task that rolls up daily transaction statistics.
+     * Runs at 00:15 daily by default.
+     */
+    @Scheduled(cron = "${scheduler.statistics-rollup.cron:0 15 0 * * *}")
+    public void runStatisticsRollup() {
+        logger.info("Starting scheduled transaction statistics rollup");
+        
+        try {
+            metricsMaterializer.rollUpDailyStatistics();
+        } catch (Exception e) {
+            logger.error("Error during scheduled transaction statistics rollup", e);
+            alertService.sendAlert("Statistics Rollup Error", 
+                    "Error during scheduled transaction statistics rollup: " + e.getMessage());
+        }
+    }
+
     /**
      * Gets information about scheduler status.
      *
@@ -57,10 +57,12 @@ public class WebhookRetryScheduler {
 
     /**
      * Scheduled task that processes webhook deliveries due for retry.
-     * Runs every minute by default.
+     * Not transactional: deliveries are claimed in short batches of
+     * webhook.retry.batch-size, each committed before the sends start.
+     * Retries are normally fired by the in-memory timing wheel, so this sweep
+     * only catches missed deadlines. Runs every 5 minutes by default.
      */
-    @Scheduled(cron = "${scheduler.webhook-retry.cron:0 * * * * *}")
-    @Transactional
+    @Scheduled(cron = "${scheduler.webhook-retry.cron:0 */5 * * * *}")
     public void processScheduledRetries() {
         if (!retryEnabled) {
             logger.debug("Webhook retry is disabled");
@@ -93,7 +95,8 @@ public class WebhookRetryScheduler {
 
     /**
      * Scheduled task that checks for webhook deliveries in a hanging state.
-     * This identifies deliveries that have been in PROCESSING state for too long.
+     * This identifies deliveries that have been in PROCESSING state for too long,
+     * or left PENDING because their later state transitions were never flushed.
      * Runs every 10 minutes by default.
      */
     @Scheduled(cron = "${scheduler.webhook-hanging.cron:0 */10 * * * *}")
@@ -0,0 +1,261 @@
+package com.exquy.webhook.infrastructure.scheduler;
+
+import com.company.transactionrecovery.domain.enums.WebhookDeliveryStatus;
+import com.company.transactionrecovery.domain.model.WebhookDelivery;
+import com.company.transactionrecovery.domain.repository.WebhookDeliveryRepository;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-memory hashed timing wheel holding the retry deadlines of the webhook
+ * deliveries owned by this node.
+ * Deadlines fire with tick accuracy instead of waiting for the next retry cron,
+ * and the due deliveries are handed to the expiry handler in batches. The wheel
+ * is rebuilt from the database on startup; the cron sweep only catches deadlines
+ * missed by the wheel (e.g. deliveries owned by a node that went away).
+ */
+@Component
+public class WebhookRetryTimingWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookRetryTimingWheel.class);
+
+    private final WebhookDeliveryRepository deliveryRepository;
+    private final Executor webhookExecutor;
+
+    @Value("${webhook.retry.timing-wheel.enabled:true}")
+    private boolean enabled;
+
+    @Value("${webhook.retry.timing-wheel.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${webhook.retry.timing-wheel.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${webhook.retry.timing-wheel.rebuild-horizon-minutes:60}")
+    private int rebuildHorizonMinutes;
+
+    @Value("${webhook.retry.batch-size:50}")
+    private int batchSize;
+
+    @Value("${webhook.node-id:}")
+    private String nodeId;
+
+    private HashedWheelTimer timer;
+
+    private final Map<UUID, Timeout> scheduled = new ConcurrentHashMap<>();
+    private final Queue<UUID> dueDeliveries = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final AtomicLong firedCount = new AtomicLong();
+
+    private volatile Consumer<List<UUID>> expiryHandler;
+
+    @Autowired
+    public WebhookRetryTimingWheel(
+            WebhookDeliveryRepository deliveryRepository,
+            @Qualifier("webhookExecutor") Executor webhookExecutor) {
+        this.deliveryRepository = deliveryRepository;
+        this.webhookExecutor = webhookExecutor;
+    }
+
+    /**
+     * Resolves the node identifier and starts the wheel.
+     */
+    @PostConstruct
+    public void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        logger.info("Webhook delivery node ID: {}", nodeId);
+
+        if (enabled) {
+            timer = new HashedWheelTimer(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "webhook-retry-wheel");
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    tickMs, TimeUnit.MILLISECONDS, wheelSize);
+        }
+    }
+
+    /**
+     * Rebuilds the wheel from the retries this node owns once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime horizon = LocalDateTime.now().plusMinutes(rebuildHorizonMinutes);
+        List<WebhookDeliveryRepository.ScheduledRetry> retries =
+                deliveryRepository.findScheduledRetriesForOwner(nodeId, horizon);
+
+        retries.forEach(retry -> schedule(retry.getId(), retry.getNextRetryAt()));
+
+        logger.info("Rebuilt webhook retry timing wheel with {} deliveries due within {} minutes",
+                retries.size(), rebuildHorizonMinutes);
+    }
+
+    /**
+     * Stops the wheel. Pending deadlines stay in the database and are
+     * picked up again on restart or by the cron sweep.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Sets the handler that receives batches of delivery IDs whose retry is due.
+     *
+     * @param expiryHandler The handler to call
+     */
+    public void setExpiryHandler(Consumer<List<UUID>> expiryHandler) {
+        this.expiryHandler = expiryHandler;
+    }
+
+    /**
+     * Gets the identifier of this node, used as owner of claimed and scheduled deliveries.
+     *
+     * @return The node ID
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Checks whether the wheel is active on this node.
+     *
+     * @return true if enabled, false otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds a delivery's retry deadline to the wheel, replacing any earlier deadline.
+     *
+     * @param delivery The delivery, expected to be RETRY_SCHEDULED
+     */
+    public void schedule(WebhookDelivery delivery) {
+        if (delivery.getDeliveryStatus() == WebhookDeliveryStatus.RETRY_SCHEDULED) {
+            schedule(delivery.getId(), delivery.getNextRetryAt());
+        }
+    }
+
+    /**
+     * Adds a retry deadline to the wheel, replacing any earlier deadline.
+     *
+     * @param deliveryId The delivery ID
+     * @param nextRetryAt The time the retry is due
+     */
+    public void schedule(UUID deliveryId, LocalDateTime nextRetryAt) {
+        if (!enabled || nextRetryAt == null) {
+            return;
+        }
+
+        long delayMs = Math.max(0, Duration.between(LocalDateTime.now(), nextRetryAt).toMillis());
+        Timeout timeout = timer.newTimeout(t -> fire(deliveryId, t), delayMs, TimeUnit.MILLISECONDS);
+
+        Timeout previous = scheduled.put(deliveryId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * Gets wheel statistics.
+     *
+     * @return Map containing the number of scheduled and fired deadlines
+     */
+    public Map<String, Object> getStatus() {
+        return Map.of(
+                "enabled", enabled,
+                "scheduled", scheduled.size(),
+                "pendingDispatch", dueDeliveries.size(),
+                "fired", firedCount.get()
+        );
+    }
+
+    private void fire(UUID deliveryId, Timeout timeout) {
+        if (!scheduled.remove(deliveryId, timeout)) {
+            return;
+        }
+
+        firedCount.incrementAndGet();
+        dueDeliveries.add(deliveryId);
+
+        // Hand due deliveries to the executor in batches, never on the wheel thread
+        if (drainScheduled.compareAndSet(false, true)) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Submits a drain of the due deliveries. If the executor is saturated they
+     * stay queued and are drained with the next deadline, or by the cron sweep.
+     */
+    private void scheduleDrain() {
+        try {
+            webhookExecutor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Webhook executor saturated, deferring {} due webhook retries", dueDeliveries.size());
+            drainScheduled.set(false);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!dueDeliveries.isEmpty()) {
+                List<UUID> batch = new ArrayList<>(batchSize);
+                UUID deliveryId;
+                while (batch.size() < batchSize && (deliveryId = dueDeliveries.poll()) != null) {
+                    batch.add(deliveryId);
+                }
+
+                Consumer<List<UUID>> handler = expiryHandler;
+                if (handler != null && !batch.isEmpty()) {
+                    handler.accept(batch);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error dispatching due webhook retries; the cron sweep will pick them up", e);
+        } finally {
+            drainScheduled.set(false);
+
+            // Deadlines may have fired after the last poll
+            if (!dueDeliveries.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+                scheduleDrain();
+            }
+        }
+    }
+}
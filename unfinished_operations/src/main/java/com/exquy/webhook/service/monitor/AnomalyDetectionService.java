@@ -94,33 +94,18 @@ public class AnomalyDetectionService {
      * @return List of transactions with excessive retries
      */
     private List<Transaction> findTransactionsWithExcessiveRetries() {
-        return transactionRepository.findAll().stream()
-                .filter(tx -> tx.getAttemptCount() >= retryThreshold)
-                .filter(tx -> tx.getStatus() != TransactionStatus.COMPLETED && 
-                              tx.getStatus() != TransactionStatus.FAILED)
-                .collect(Collectors.toList());
+        return transactionRepository.findUnresolvedWithAttemptCountAtLeast(retryThreshold);
     }
 
     /**
      * Finds transactions with excessive state changes.
+     * Relies on the state change counter kept by the database, so no history
+     * needs to be read.
      *
      * @return List of transactions with excessive state changes
      */
     private List<Transaction> findTransactionsWithExcessiveStateChanges() {
-        List<Transaction> result = new ArrayList<>();
-        
-        List<Transaction> allTransactions = transactionRepository.findAll();
-        
-        for (Transaction tx : allTransactions) {
-            List<TransactionHistory> history = historyRepository
-                    .findByTransactionIdOrderByChangedAtAsc(tx.getId());
-            
-            if (history.size() >= stateChangeThreshold) {
-                result.add(tx);
-            }
-        }
-        
-        return result;
+        return transactionRepository.findWithStateChangeCountAtLeast(stateChangeThreshold);
     }
 
     /**
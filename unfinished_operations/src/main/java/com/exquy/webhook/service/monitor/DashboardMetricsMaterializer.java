@@ -0,0 +1,246 @@
+package com.exquy.webhook.service.monitor;
+
+import com.company.transactionrecovery.domain.enums.TransactionStatus;
+import com.company.transactionrecovery.domain.enums.WebhookDeliveryStatus;
+import com.company.transactionrecovery.domain.repository.TransactionRepository;
+import com.company.transactionrecovery.domain.repository.TransactionStatisticsRepository;
+import com.company.transactionrecovery.domain.repository.WebhookDeliveryRepository;
+import com.company.transactionrecovery.domain.service.webhook.WebhookDeliveryJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory materialization of the dashboard metrics.
+ * Transaction counts by status are loaded from the database and then kept up
+ * to date from the status changes this node commits, so reading them costs no
+ * query. Delivery counts and the number of anomalous transactions are only
+ * taken from the database. Every refresh replaces all values with the database
+ * counts, which also picks up the changes made by other nodes.
+ */
+@Component
+public class DashboardMetricsMaterializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardMetricsMaterializer.class);
+
+    private final TransactionRepository transactionRepository;
+    private final WebhookDeliveryRepository deliveryRepository;
+    private final TransactionStatisticsRepository statisticsRepository;
+    private final AnomalyDetectionService anomalyDetectionService;
+    private final WebhookDeliveryJournal deliveryJournal;
+
+    @Value("${transaction.metrics.rollup-days:2}")
+    private int rollupDays;
+
+    private final Map<TransactionStatus, AtomicLong> transactionCounts = new EnumMap<>(TransactionStatus.class);
+
+    private volatile Map<WebhookDeliveryStatus, Long> deliveryCounts = new EnumMap<>(WebhookDeliveryStatus.class);
+    private volatile long anomalousTransactions;
+    private volatile LocalDateTime refreshedAt;
+
+    @Autowired
+    public DashboardMetricsMaterializer(
+            TransactionRepository transactionRepository,
+            WebhookDeliveryRepository deliveryRepository,
+            TransactionStatisticsRepository statisticsRepository,
+            AnomalyDetectionService anomalyDetectionService,
+            WebhookDeliveryJournal deliveryJournal) {
+        this.transactionRepository = transactionRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.statisticsRepository = statisticsRepository;
+        this.anomalyDetectionService = anomalyDetectionService;
+        this.deliveryJournal = deliveryJournal;
+
+        for (TransactionStatus status : TransactionStatus.values()) {
+            transactionCounts.put(status, new AtomicLong());
+        }
+    }
+
+    /**
+     * Records a new transaction once the current database transaction commits.
+     *
+     * @param status The status of the new transaction
+     */
+    public void recordTransactionCreated(TransactionStatus status) {
+        recordTransactionsCreated(status, 1);
+    }
+
+    /**
+     * Records several new transactions once the current database transaction commits.
+     *
+     * @param status The status of the new transactions
+     * @param count The number of new transactions
+     */
+    public void recordTransactionsCreated(TransactionStatus status, int count) {
+        if (count == 0) {
+            return;
+        }
+
+        afterCommit(() -> transactionCounts.get(status).addAndGet(count));
+    }
+
+    /**
+     * Records a transaction status change once the current database transaction commits.
+     *
+     * @param previousStatus The previous status
+     * @param newStatus The new status
+     */
+    public void recordStatusChange(TransactionStatus previousStatus, TransactionStatus newStatus) {
+        recordStatusChanges(previousStatus, newStatus, 1);
+    }
+
+    /**
+     * Records the same status change of several transactions once the current
+     * database transaction commits.
+     *
+     * @param previousStatus The previous status
+     * @param newStatus The new status
+     * @param count The number of transactions that changed
+     */
+    public void recordStatusChanges(TransactionStatus previousStatus, TransactionStatus newStatus, int count) {
+        if (previousStatus == newStatus || count == 0) {
+            return;
+        }
+
+        afterCommit(() -> {
+            transactionCounts.get(previousStatus).addAndGet(-count);
+            transactionCounts.get(newStatus).addAndGet(count);
+        });
+    }
+
+    /**
+     * Replaces the materialized values with the current database counts.
+     */
+    @Scheduled(fixedDelayString = "${transaction.metrics.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        try {
+            Map<TransactionStatus, Long> counts = new EnumMap<>(TransactionStatus.class);
+            for (TransactionRepository.StatusCount sc : transactionRepository.countByStatus()) {
+                counts.put(sc.getStatus(), sc.getCount());
+            }
+
+            Map<WebhookDeliveryStatus, Long> deliveries = new EnumMap<>(WebhookDeliveryStatus.class);
+            for (WebhookDeliveryRepository.StatusCount sc : deliveryRepository.countByDeliveryStatus()) {
+                deliveries.put(sc.getStatus(), sc.getCount());
+            }
+
+            long anomalies = anomalyDetectionService.detectAnomalousTransactions().size();
+
+            for (TransactionStatus status : TransactionStatus.values()) {
+                transactionCounts.get(status).set(counts.getOrDefault(status, 0L));
+            }
+            deliveryCounts = deliveries;
+            anomalousTransactions = anomalies;
+            refreshedAt = LocalDateTime.now();
+        } catch (Exception e) {
+            logger.error("Error refreshing dashboard metrics", e);
+        }
+    }
+
+    /**
+     * Gets the dashboard metrics without querying the database, except for the
+     * first call before any refresh has completed.
+     *
+     * @return Map of system metrics
+     */
+    public Map<String, Object> getSystemMetrics() {
+        if (refreshedAt == null) {
+            refresh();
+        }
+
+        Map<String, Object> metrics = new HashMap<>();
+
+        Map<String, Long> countsByStatus = new HashMap<>();
+        long totalTransactions = 0;
+        for (Map.Entry<TransactionStatus, AtomicLong> entry : transactionCounts.entrySet()) {
+            long count = Math.max(0, entry.getValue().get());
+            if (count > 0) {
+                countsByStatus.put(entry.getKey().toString(), count);
+            }
+            totalTransactions += count;
+        }
+
+        metrics.put("transactions_by_status", countsByStatus);
+        metrics.put("anomalous_transactions", anomalousTransactions);
+        metrics.put("completion_rate", percentage(countsByStatus.getOrDefault("COMPLETED", 0L), totalTransactions));
+        metrics.put("failure_rate", percentage(countsByStatus.getOrDefault("FAILED", 0L), totalTransactions));
+        metrics.put("webhook_metrics", getDeliveryMetrics());
+        metrics.put("refreshed_at", refreshedAt);
+
+        return metrics;
+    }
+
+    /**
+     * Writes the daily rollups of the last days to transaction_statistics.
+     * Recent days are rolled up again on every run, since their transactions
+     * can still change status.
+     *
+     * @return The number of rows written
+     */
+    public int rollUpDailyStatistics() {
+        LocalDate today = LocalDate.now();
+        int rows = 0;
+
+        for (int i = 1; i <= rollupDays; i++) {
+            rows += statisticsRepository.rollUpDay(today.minusDays(i));
+        }
+
+        logger.info("Rolled up transaction statistics for the last {} days: {} rows", rollupDays, rows);
+        return rows;
+    }
+
+    /**
+     * Builds the webhook delivery metrics in the format of WebhookService.getDeliveryStatistics.
+     */
+    private Map<String, Object> getDeliveryMetrics() {
+        Map<String, Long> countsByStatus = new HashMap<>();
+        long totalDeliveries = 0;
+        for (Map.Entry<WebhookDeliveryStatus, Long> entry : deliveryCounts.entrySet()) {
+            countsByStatus.put(entry.getKey().toString(), entry.getValue());
+            totalDeliveries += entry.getValue();
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("countsByStatus", countsByStatus);
+        stats.put("successRate", percentage(countsByStatus.getOrDefault("DELIVERED", 0L), totalDeliveries));
+        stats.put("totalDeliveries", totalDeliveries);
+        stats.put("journal", deliveryJournal.getStats());
+
+        return stats;
+    }
+
+    private static double percentage(long count, long total) {
+        double rate = total > 0 ? (double) count / total * 100 : 0;
+        return Math.round(rate * 100) / 100.0;
+    }
+
+    /**
+     * Runs the update after the current database transaction commits, or right
+     * away when no transaction is active.
+     */
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
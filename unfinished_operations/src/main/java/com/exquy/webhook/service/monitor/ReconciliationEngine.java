@@ -0,0 +1,286 @@
+package com.exquy.webhook.service.monitor;
+
+import com.company.transactionrecovery.domain.repository.ReconciliationCheckpointRepository;
+import com.company.transactionrecovery.domain.repository.ReconciliationCheckpointRepository.Checkpoint;
+import com.company.transactionrecovery.domain.repository.TransactionRepository;
+import com.company.transactionrecovery.domain.service.transaction.TransactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streaming reconciliation of transactions in non-terminal states.
+ * Transactions are split into partitions by a hash of their ID and each
+ * partition is walked by its own worker in ID order, one fixed-size chunk of
+ * IDs at a time, so memory use does not depend on the number of stuck rows.
+ * Every chunk is reconciled and checkpointed in its own database transaction;
+ * a run that is interrupted is resumed from the checkpoints on the next call.
+ * Runs are shared by the cluster: a node joins the unfinished run if there is
+ * one, and each partition is claimed by one node at a time for a lease that
+ * every chunk renews.
+ */
+@Component
+public class ReconciliationEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliationEngine.class);
+
+    // PostgreSQL orders UUIDs as unsigned bytes, so the nil UUID sorts before any transaction ID
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final Executor reconciliationExecutor;
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionTemplate rowTransaction;
+
+    @Value("${transaction.reconciliation.workers:4}")
+    private int workers;
+
+    @Value("${transaction.reconciliation.chunk-size:500}")
+    private int chunkSize;
+
+    // Must outlast the reconciliation of a chunk, or the partition is taken over mid-chunk
+    @Value("${transaction.reconciliation.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${webhook.node-id:}")
+    private String nodeId;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Autowired
+    public ReconciliationEngine(
+            TransactionRepository transactionRepository,
+            TransactionService transactionService,
+            ReconciliationCheckpointRepository checkpointRepository,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("reconciliationExecutor") Executor reconciliationExecutor) {
+        this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
+        this.checkpointRepository = checkpointRepository;
+        this.reconciliationExecutor = reconciliationExecutor;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.rowTransaction = new TransactionTemplate(transactionManager);
+        this.rowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Resolves the node identifier used to claim partitions.
+     */
+    @PostConstruct
+    public void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+    }
+
+    /**
+     * Runs a reconciliation, joining the last run if it did not complete.
+     * The run is chosen under a cluster-wide lock, so nodes started together
+     * share one run instead of each creating their own.
+     *
+     * @return Results of the run
+     * @throws IllegalStateException if a reconciliation is already running on this node
+     */
+    public Map<String, Object> run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Reconciliation is already in progress");
+        }
+
+        try {
+            AtomicBoolean resumed = new AtomicBoolean(false);
+            UUID runId = chunkTransaction.execute(status -> {
+                checkpointRepository.lockRuns();
+
+                UUID incompleteRunId = checkpointRepository.findIncompleteRun().orElse(null);
+                if (incompleteRunId != null) {
+                    resumed.set(true);
+                    return incompleteRunId;
+                }
+
+                UUID newRunId = UUID.randomUUID();
+                checkpointRepository.createRun(newRunId, workers);
+                return newRunId;
+            });
+
+            if (resumed.get()) {
+                logger.info("Resuming reconciliation run {}", runId);
+            } else {
+                logger.info("Starting reconciliation run {} with {} partitions", runId, workers);
+            }
+
+            runPartitions(runId, checkpointRepository.findByRun(runId));
+
+            return summarize(runId, resumed.get());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Walks the unfinished partitions of a run on the reconciliation executor.
+     * Each worker claims partitions until none is left; a partition that fails
+     * keeps its checkpoint and is resumed once its claim has expired.
+     */
+    private void runPartitions(UUID runId, List<Checkpoint> checkpoints) {
+        long unfinished = checkpoints.stream().filter(checkpoint -> !checkpoint.isCompleted()).count();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < Math.min(workers, unfinished); i++) {
+            futures.add(CompletableFuture.runAsync(() -> runClaimedPartitions(runId), reconciliationExecutor));
+        }
+
+        try {
+            for (CompletableFuture<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    logger.error("Reconciliation partition failed, it will be resumed by the next run", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Claims and reconciles unfinished partitions of a run, one at a time,
+     * until no unclaimed partition is left.
+     */
+    private void runClaimedPartitions(UUID runId) {
+        while (!Thread.currentThread().isInterrupted()) {
+            Checkpoint checkpoint = checkpointRepository.claimPartition(runId, nodeId, leaseMs).orElse(null);
+            if (checkpoint == null) {
+                return;
+            }
+            runPartition(checkpoint);
+        }
+    }
+
+    /**
+     * Reconciles one partition, chunk by chunk, starting after its checkpoint.
+     * Stops without completing the partition if its claim was taken over.
+     */
+    private void runPartition(Checkpoint checkpoint) {
+        UUID runId = checkpoint.getRunId();
+        int partition = checkpoint.getPartition();
+        UUID lastId = checkpoint.getLastTransactionId() != null ? checkpoint.getLastTransactionId() : MIN_ID;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<UUID> ids = transactionRepository.findUnresolvedIdsAfter(
+                    lastId, checkpoint.getPartitionCount(), partition, chunkSize);
+
+            if (ids.isEmpty()) {
+                checkpointRepository.complete(runId, partition, nodeId);
+                logger.info("Reconciliation run {} completed partition {}", runId, partition);
+                return;
+            }
+
+            if (!reconcileChunk(runId, partition, ids)) {
+                logger.warn("Reconciliation run {} lost its claim on partition {}", runId, partition);
+                return;
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+    }
+
+    /**
+     * Reconciles a chunk and moves the checkpoint in a single transaction.
+     * If any transaction of the chunk fails, the chunk is rolled back and
+     * reconciled again one transaction at a time, so a single bad row neither
+     * blocks the chunk nor stops the partition.
+     *
+     * @return false if the partition is no longer claimed by this node
+     */
+    private boolean reconcileChunk(UUID runId, int partition, List<UUID> ids) {
+        UUID lastId = ids.get(ids.size() - 1);
+
+        try {
+            return Boolean.TRUE.equals(chunkTransaction.execute(status -> {
+                // Renewing first locks the checkpoint row, so the claim cannot be taken over mid-chunk
+                if (!checkpointRepository.renewClaim(runId, partition, nodeId, leaseMs)) {
+                    return false;
+                }
+                for (UUID id : ids) {
+                    transactionService.reconcileTransaction(id);
+                }
+                checkpointRepository.advance(runId, partition, nodeId, lastId, ids.size(), ids.size(), 0);
+                return true;
+            }));
+        } catch (Exception e) {
+            logger.warn("Reconciliation chunk of partition {} failed, retrying transactions individually: {}",
+                    partition, e.getMessage());
+        }
+
+        if (!checkpointRepository.renewClaim(runId, partition, nodeId, leaseMs)) {
+            return false;
+        }
+
+        int reconciled = 0;
+        for (UUID id : ids) {
+            try {
+                rowTransaction.executeWithoutResult(status -> transactionService.reconcileTransaction(id));
+                reconciled++;
+            } catch (Exception e) {
+                logger.error("Error reconciling transaction: {}", id, e);
+            }
+        }
+
+        checkpointRepository.advance(runId, partition, nodeId, lastId, ids.size(), reconciled, ids.size() - reconciled);
+        return true;
+    }
+
+    /**
+     * Sums up the checkpoints of a run.
+     */
+    private Map<String, Object> summarize(UUID runId, boolean resumed) {
+        List<Checkpoint> checkpoints = checkpointRepository.findByRun(runId);
+
+        long processed = 0;
+        long reconciled = 0;
+        long failed = 0;
+        int completedPartitions = 0;
+
+        for (Checkpoint checkpoint : checkpoints) {
+            processed += checkpoint.getProcessed();
+            reconciled += checkpoint.getReconciled();
+            failed += checkpoint.getFailed();
+            if (checkpoint.isCompleted()) {
+                completedPartitions++;
+            }
+        }
+
+        Map<String, Object> results = new HashMap<>();
+        results.put("run_id", runId.toString());
+        results.put("resumed", resumed);
+        results.put("partitions", checkpoints.size());
+        results.put("partitions_completed", completedPartitions);
+        results.put("total_transactions_processed", processed);
+        results.put("transactions_reconciled", reconciled);
+        results.put("transactions_failed", failed);
+
+        logger.info("Reconciliation run {}: {} of {} partitions completed, {} transactions processed, " +
+                        "{} reconciled, {} failed",
+                runId, completedPartitions, checkpoints.size(), processed, reconciled, failed);
+
+        return results;
+    }
+}
@@ -3,11 +3,13 @@ package com.exquy.webhook.service.monitor;
 import com.company.transactionrecovery.domain.enums.TransactionStatus;
 import com.company.transactionrecovery.domain.enums.WebhookEventType;
 import com.company.transactionrecovery.domain.model.Transaction;
+import com.company.transactionrecovery.domain.repository.TransactionBatchRepository;
 import com.company.transactionrecovery.domain.repository.TransactionHistoryRepository;
 import com.company.transactionrecovery.domain.repository.TransactionRepository;
 import com.company.transactionrecovery.domain.service.transaction.StateManagerService;
 import com.company.transactionrecovery.domain.service.transaction.TransactionService;
 import com.company.transactionrecovery.domain.service.webhook.WebhookService;
+import com.company.transactionrecovery.infrastructure.kafka.producer.TransactionEventProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +17,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -41,6 +46,11 @@ public class TransactionMonitorService {
     private final WebhookService webhookService;
     private final AnomalyDetectionService anomalyDetectionService;
     private final AlertService alertService;
+    private final ReconciliationEngine reconciliationEngine;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final TransactionEventProducer eventProducer;
+    private final TransactionTemplate sweepTransaction;
+    private final DashboardMetricsMaterializer metricsMaterializer;
 
     // Flag to indicate if a monitoring task is already running
     private final AtomicBoolean monitoringInProgress = new AtomicBoolean(false);
@@ -54,6 +64,9 @@ public class TransactionMonitorService {
     @Value("${transaction.monitor.max-auto-retries:3}")
     private int maxAutoRetries;
 
+    @Value("${transaction.monitor.sweep-chunk-size:1000}")
+    private int sweepChunkSize;
+
     @Autowired
     public TransactionMonitorService(
             TransactionRepository transactionRepository,
@@ -62,7 +75,12 @@ public class TransactionMonitorService {
             StateManagerService stateManagerService,
             WebhookService webhookService,
             AnomalyDetectionService anomalyDetectionService,
-            AlertService alertService) {
+            AlertService alertService,
+            ReconciliationEngine reconciliationEngine,
+            TransactionBatchRepository transactionBatchRepository,
+            TransactionEventProducer eventProducer,
+            PlatformTransactionManager transactionManager,
+            DashboardMetricsMaterializer metricsMaterializer) {
         this.transactionRepository = transactionRepository;
         this.historyRepository = historyRepository;
         this.transactionService = transactionService;
@@ -70,6 +88,13 @@ public class TransactionMonitorService {
         this.webhookService = webhookService;
         this.anomalyDetectionService = anomalyDetectionService;
         this.alertService = alertService;
+        this.reconciliationEngine = reconciliationEngine;
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.eventProducer = eventProducer;
+        // Each chunk commits on its own, even when the monitor runs inside a transaction
+        this.sweepTransaction = new TransactionTemplate(transactionManager);
+        this.sweepTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.metricsMaterializer = metricsMaterializer;
     }
 
     /**
@@ -157,58 +182,40 @@ public class TransactionMonitorService {
 
     /**
      * Checks for pending transactions that have been in that state too long.
+     * Stalled transactions are moved to TIMEOUT in chunks, each with a single
+     * set-based statement.
      *
      * @return The number of transactions resolved
      */
     private int checkPendingTransactions() {
         LocalDateTime threshold = LocalDateTime.now().minus(pendingTimeoutMinutes, ChronoUnit.MINUTES);
-        List<Transaction> stalledTransactions = transactionRepository
-                .findByStatusAndCreatedAtBefore(TransactionStatus.PENDING, threshold);
-        
-        logger.info("Found {} stalled PENDING transactions", stalledTransactions.size());
-        
-        int resolved = 0;
-        for (Transaction tx : stalledTransactions) {
-            try {
-                // Move to TIMEOUT state
-                transactionService.updateTransactionStatus(
-                        tx.getId(), 
-                        TransactionStatus.TIMEOUT, 
-                        "Transaction timed out in PENDING state", 
-                        "SYSTEM_MONITOR");
-                
-                // Send notification
-                Map<String, Object> additionalData = new HashMap<>();
-                additionalData.put("reason", "Transaction timed out in PENDING state");
-                additionalData.put("timeoutThreshold", pendingTimeoutMinutes + " minutes");
-                
-                webhookService.sendTransactionEventNotification(
-                        tx, WebhookEventType.TRANSACTION_TIMEOUT, additionalData);
-                
-                resolved++;
-            } catch (Exception e) {
-                logger.error("Error handling stalled PENDING transaction: {}", tx.getId(), e);
-                alertService.sendAlert("Monitor Error", 
-                        "Error handling stalled PENDING transaction: " + tx.getId());
-            }
-        }
-        
+
+        int resolved = sweepTimeouts(TransactionStatus.PENDING, threshold, null, pendingTimeoutMinutes);
+
+        logger.info("Timed out {} stalled PENDING transactions", resolved);
+
         return resolved;
     }
 
     /**
      * Checks for processing transactions that have been in that state too long.
+     * Transactions with no attempt within the timeout are moved to TIMEOUT in
+     * bulk, as StateManagerService would. The remaining stalled transactions have
+     * a recent attempt, so their actual state is determined one by one first.
      *
      * @return The number of transactions resolved
      */
     private int checkProcessingTransactions() {
         LocalDateTime threshold = LocalDateTime.now().minus(processingTimeoutMinutes, ChronoUnit.MINUTES);
+
+        int resolved = sweepTimeouts(TransactionStatus.PROCESSING, threshold, threshold, processingTimeoutMinutes);
+
         List<Transaction> stalledTransactions = transactionRepository
                 .findByStatusAndCreatedAtBefore(TransactionStatus.PROCESSING, threshold);
         
-        logger.info("Found {} stalled PROCESSING transactions", stalledTransactions.size());
+        logger.info("Timed out {} stalled PROCESSING transactions, {} recently attempted remain",
+                resolved, stalledTransactions.size());
         
-        int resolved = 0;
         for (Transaction tx : stalledTransactions) {
             try {
                 // Attempt to determine the actual state
@@ -264,6 +271,62 @@ public class TransactionMonitorService {
         return resolved;
     }
 
+    /**
+     * Moves stalled transactions of one status to TIMEOUT, one chunk per
+     * database transaction. Each chunk is updated and its history written by a
+     * single statement, its webhook fan-out is planned once and its delivery
+     * rows written by a single statement, and its Kafka status change events
+     * are queued in the same transaction.
+     *
+     * @param fromStatus The status the transactions are stalled in
+     * @param createdBefore Only transactions created before this time are stalled
+     * @param lastAttemptBefore If not null, only transactions not attempted since this time are stalled
+     * @param timeoutMinutes The timeout reported in the notifications
+     * @return The number of transactions timed out
+     */
+    private int sweepTimeouts(TransactionStatus fromStatus, LocalDateTime createdBefore,
+                              LocalDateTime lastAttemptBefore, int timeoutMinutes) {
+        String reason = "Transaction timed out in " + fromStatus + " state";
+        int total = 0;
+
+        while (true) {
+            List<Transaction> timedOut;
+            try {
+                timedOut = sweepTransaction.execute(status -> {
+                    transactionBatchRepository.skipStatusHistoryTrigger();
+
+                    List<Transaction> chunk = transactionBatchRepository.timeOutStalled(
+                            fromStatus, createdBefore, lastAttemptBefore, reason, "SYSTEM_MONITOR", sweepChunkSize);
+
+                    if (!chunk.isEmpty()) {
+                        Map<String, Object> additionalData = new HashMap<>();
+                        additionalData.put("reason", reason);
+                        additionalData.put("timeoutThreshold", timeoutMinutes + " minutes");
+
+                        webhookService.sendTransactionEventNotifications(
+                                chunk, WebhookEventType.TRANSACTION_TIMEOUT, additionalData);
+                    }
+
+                    eventProducer.sendTransactionStatusChangedEvents(chunk, fromStatus);
+
+                    return chunk;
+                });
+            } catch (Exception e) {
+                logger.error("Error timing out stalled {} transactions", fromStatus, e);
+                alertService.sendAlert("Monitor Error",
+                        "Error timing out stalled " + fromStatus + " transactions: " + e.getMessage());
+                return total;
+            }
+
+            metricsMaterializer.recordStatusChanges(fromStatus, TransactionStatus.TIMEOUT, timedOut.size());
+            total += timedOut.size();
+
+            if (timedOut.size() < sweepChunkSize) {
+                return total;
+            }
+        }
+    }
+
     /**
      * Checks transactions in TIMEOUT or INCONSISTENT state and attempts to resolve them.
      *
@@ -392,129 +455,33 @@ public class TransactionMonitorService {
     /**
      * Runs a reconciliation process to detect and fix inconsistencies.
      * This is typically used after system failures or maintenance.
+     * Transactions are streamed and reconciled in independently committed chunks
+     * by the ReconciliationEngine, which resumes an interrupted run.
      *
      * @return Results of the reconciliation process
      */
-    @Transactional
     public Map<String, Object> runReconciliationProcess() {
         logger.info("Starting system-wide reconciliation process");
         
-        Map<String, Object> results = new HashMap<>();
-        
-        // Find all transactions in non-terminal states
-        List<Transaction> pendingTransactions = transactionRepository
-                .findByStatus(TransactionStatus.PENDING, null).getContent();
-        
-        List<Transaction> processingTransactions = transactionRepository
-                .findByStatus(TransactionStatus.PROCESSING, null).getContent();
-        
-        List<Transaction> timeoutTransactions = transactionRepository
-                .findByStatus(TransactionStatus.TIMEOUT, null).getContent();
-        
-        List<Transaction> inconsistentTransactions = transactionRepository
-                .findByStatus(TransactionStatus.INCONSISTENT, null).getContent();
-        
-        int reconciled = 0;
-        
-        // Process all pending transactions
-        for (Transaction tx : pendingTransactions) {
-            try {
-                transactionService.reconcileTransaction(tx.getId());
-                reconciled++;
-            } catch (Exception e) {
-                logger.error("Error reconciling PENDING transaction: {}", tx.getId(), e);
-            }
-        }
-        
-        // Process all processing transactions
-        for (Transaction tx : processingTransactions) {
-            try {
-                transactionService.reconcileTransaction(tx.getId());
-                reconciled++;
-            } catch (Exception e) {
-                logger.error("Error reconciling PROCESSING transaction: {}", tx.getId(), e);
-            }
-        }
-        
-        // Process all timeout transactions
-        for (Transaction tx : timeoutTransactions) {
-            try {
-                transactionService.reconcileTransaction(tx.getId());
-                reconciled++;
-            } catch (Exception e) {
-                logger.error("Error reconciling TIMEOUT transaction: {}", tx.getId(), e);
-            }
-        }
-        
-        // Process all inconsistent transactions
-        for (Transaction tx : inconsistentTransactions) {
-            try {
-                transactionService.reconcileTransaction(tx.getId());
-                reconciled++;
-            } catch (Exception e) {
-                logger.error("Error reconciling INCONSISTENT transaction: {}", tx.getId(), e);
-            }
-        }
-        
-        results.put("total_transactions_processed", 
-                pendingTransactions.size() + processingTransactions.size() + 
-                timeoutTransactions.size() + inconsistentTransactions.size());
-        
-        results.put("transactions_reconciled", reconciled);
+        Map<String, Object> results = new HashMap<>(reconciliationEngine.run());
         
         // Check for any remaining anomalies
         List<Transaction> remainingAnomalies = anomalyDetectionService.detectAnomalousTransactions();
         results.put("transactions_requiring_manual_intervention", remainingAnomalies.size());
         
         logger.info("Completed system-wide reconciliation process. Reconciled {} transactions.", 
-                reconciled);
+                results.get("transactions_reconciled"));
         
         return results;
     }
 
     /**
-     * Gets the current system metrics.
+     * Gets the current system metrics, as materialized by DashboardMetricsMaterializer.
      *
      * @return Map of metrics
      */
-    @Transactional(readOnly = true)
     public Map<String, Object> getSystemMetrics() {
-        Map<String, Object> metrics = new HashMap<>();
-        
-        // Get transaction counts by status
-        List<TransactionRepository.StatusCount> statusCounts = transactionRepository.countByStatus();
-        Map<String, Long> countsByStatus = new HashMap<>();
-        
-        for (TransactionRepository.StatusCount sc : statusCounts) {
-            countsByStatus.put(sc.getStatus().toString(), sc.getCount());
-        }
-        
-        metrics.put("transactions_by_status", countsByStatus);
-        
-        // Get count of anomalous transactions
-        List<Transaction> anomalies = anomalyDetectionService.detectAnomalousTransactions();
-        metrics.put("anomalous_transactions", anomalies.size());
-        
-        // Calculate processing efficiency
-        long totalTransactions = transactionRepository.count();
-        long completedTransactions = countsByStatus.getOrDefault("COMPLETED", 0L);
-        long failedTransactions = countsByStatus.getOrDefault("FAILED", 0L);
-        
-        double completionRate = totalTransactions > 0 
-                ? (double) completedTransactions / totalTransactions * 100 
-                : 0;
-        
-        double failureRate = totalTransactions > 0 
-                ? (double) failedTransactions / totalTransactions * 100 
-                : 0;
-        
-        metrics.put("completion_rate", Math.round(completionRate * 100) / 100.0);
-        metrics.put("failure_rate", Math.round(failureRate * 100) / 100.0);
-        
-        // Add webhook metrics
-        metrics.put("webhook_metrics", webhookService.getDeliveryStatistics());
-        
-        return metrics;
+        return metricsMaterializer.getSystemMetrics();
     }
 
     /**
@@ -7,14 +7,25 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * Service responsible for ensuring idempotency in transaction processing.
  * This prevents duplicate transactions from being processed while allowing
  * legitimate retries of the same transaction.
+ * Every transaction stores a fingerprint of its request, so a repeated request
+ * with the same content is recognized by comparing two hashes. The field by
+ * field comparison only runs when the fingerprints differ.
  */
 @Service
 public class IdempotencyService {
@@ -50,6 +61,12 @@ public class IdempotencyService {
      * @return true if the request is idempotent (same transaction), false otherwise
      */
     public boolean isIdempotent(Transaction existingTransaction, TransactionRequest request) {
+        // Same fingerprint means same origin system and same relevant payload
+        if (existingTransaction.getPayloadFingerprint() != null &&
+            existingTransaction.getPayloadFingerprint().equals(fingerprint(request))) {
+            return true;
+        }
+
         // If origin systems don't match, definitely not idempotent
         if (!Objects.equals(existingTransaction.getOriginSystem(), request.getOriginSystem())) {
             logger.warn("Idempotency check failed: origin system mismatch for transaction ID: {}", 
@@ -119,6 +136,90 @@ public class IdempotencyService {
         return isIdempotent;
     }
 
+    /**
+     * Computes the fingerprint of a transaction request: a SHA-256 hash over the
+     * origin system and a canonical form of the payload, in which map keys are
+     * sorted, numbers are normalized and top-level ignored fields are left out
+     * (critical fields are always kept). The ignored fields are part of the
+     * hash, so changing them makes earlier fingerprints fall back to the field
+     * by field comparison instead of matching on fields that are now relevant.
+     *
+     * @param request The transaction request
+     * @return The fingerprint as a hex string
+     */
+    public String fingerprint(TransactionRequest request) {
+        StringBuilder canonical = new StringBuilder();
+        canonical.append(new TreeSet<>(ignoredFields)).append('|');
+        appendCanonical(canonical, request.getOriginSystem());
+        canonical.append('|');
+
+        Map<String, Object> payload = request.getPayload();
+        if (payload == null) {
+            canonical.append('~');
+        } else {
+            Map<String, Object> relevant = new TreeMap<>();
+            for (Map.Entry<String, Object> entry : payload.entrySet()) {
+                if (!ignoredFields.contains(entry.getKey()) || criticalFields.contains(entry.getKey())) {
+                    relevant.put(entry.getKey(), entry.getValue());
+                }
+            }
+            appendCanonical(canonical, relevant);
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Appends the canonical form of a JSON value. Strings are length-prefixed
+     * so no two different values share a canonical form.
+     */
+    private void appendCanonical(StringBuilder canonical, Object value) {
+        if (value == null) {
+            canonical.append('~');
+        } else if (value instanceof Map) {
+            canonical.append('{');
+            for (Map.Entry<?, ?> entry : new TreeMap<>((Map<?, ?>) value).entrySet()) {
+                appendCanonical(canonical, String.valueOf(entry.getKey()));
+                canonical.append(':');
+                appendCanonical(canonical, entry.getValue());
+                canonical.append(',');
+            }
+            canonical.append('}');
+        } else if (value instanceof Collection) {
+            canonical.append('[');
+            for (Object element : (Collection<?>) value) {
+                appendCanonical(canonical, element);
+                canonical.append(',');
+            }
+            canonical.append(']');
+        } else if (value instanceof Number) {
+            canonical.append('n').append(normalizeNumber((Number) value));
+        } else if (value instanceof Boolean) {
+            canonical.append((Boolean) value ? 't' : 'f');
+        } else {
+            String text = value.toString();
+            canonical.append('s').append(text.length()).append(':').append(text);
+        }
+    }
+
+    /**
+     * Normalizes a number so that equal values of different types, such as 10
+     * and 10.0, have the same canonical form.
+     */
+    private static String normalizeNumber(Number number) {
+        try {
+            return new BigDecimal(number.toString()).stripTrailingZeros().toPlainString();
+        } catch (NumberFormatException e) {
+            // NaN and infinities
+            return number.toString();
+        }
+    }
+
     /**
      * Compares the value of a specific field in two payloads.
      *
@@ -0,0 +1,167 @@
+package com.exquy.webhook.service.transaction;
+
+import com.company.transactionrecovery.domain.repository.TransactionBatchRepository;
+import com.company.transactionrecovery.util.ScalableBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * In-memory Bloom filter of the IDs of recent transactions, used to tell new
+ * transaction IDs apart from IDs that may already exist without a database read.
+ * The filter is built from the transactions created within the configured
+ * window, at startup and then periodically, and IDs created on this node are
+ * added as they are created. IDs created on other nodes since the last rebuild
+ * are missing, so "absent" is only a hint and the insert's ON CONFLICT clause
+ * remains the authority. Until the first build completes every ID is reported
+ * as possibly existing.
+ */
+@Component
+public class TransactionIdFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIdFilter.class);
+
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final TransactionTemplate readTransaction;
+
+    @Value("${transaction.id-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transaction.id-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${transaction.id-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${transaction.id-filter.window-hours:48}")
+    private int windowHours;
+
+    private volatile ScalableBloomFilter filter;
+    // Filter being built by a rebuild, which must also receive the IDs created meanwhile
+    private volatile ScalableBloomFilter building;
+
+    private final Counter absentChecks;
+    private final Counter presentChecks;
+    private final Counter falsePositives;
+
+    @Autowired
+    public TransactionIdFilter(
+            TransactionBatchRepository transactionBatchRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.transactionBatchRepository = transactionBatchRepository;
+        // The driver only streams with a fetch size inside a transaction; read-only goes to the replica
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.absentChecks = Counter.builder("transaction.id.filter.checks")
+                .tag("result", "absent")
+                .register(meterRegistry);
+        this.presentChecks = Counter.builder("transaction.id.filter.checks")
+                .tag("result", "maybe_present")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("transaction.id.filter.false.positives")
+                .register(meterRegistry);
+        Gauge.builder("transaction.id.filter.false.positive.rate", this,
+                        TransactionIdFilter::getEstimatedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("transaction.id.filter.size", this, idFilter -> idFilter.filter != null ? idFilter.filter.size() : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks whether a transaction with the given ID may already exist.
+     *
+     * @param id The transaction ID
+     * @return false if the ID is new as far as this node knows, true if it may exist
+     */
+    public boolean mightExist(UUID id) {
+        if (!enabled) {
+            return false;
+        }
+
+        ScalableBloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+
+        boolean mightExist = current.mightContain(id);
+        (mightExist ? presentChecks : absentChecks).increment();
+        return mightExist;
+    }
+
+    /**
+     * Adds the ID of a transaction created on this node.
+     *
+     * @param id The transaction ID
+     */
+    public void recordCreated(UUID id) {
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            current.add(id);
+        }
+
+        ScalableBloomFilter next = building;
+        if (next != null) {
+            next.add(id);
+        }
+    }
+
+    /**
+     * Records that an ID reported as possibly existing did not exist.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Rebuilds the filter from the transactions created within the window,
+     * then swaps it in. Runs at startup and then at a fixed interval, so IDs
+     * older than the window leave the filter and IDs created on other nodes
+     * join it.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${transaction.id-filter.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        ScalableBloomFilter next = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+        building = next;
+
+        try {
+            LocalDateTime createdAfter = LocalDateTime.now().minusHours(windowHours);
+            readTransaction.executeWithoutResult(status ->
+                    transactionBatchRepository.forEachIdCreatedAfter(createdAfter, next::add));
+
+            filter = next;
+            logger.info("Rebuilt transaction ID filter with {} IDs in {} ms, estimated false positive rate {}",
+                    next.size(), System.currentTimeMillis() - start, next.estimatedFalsePositiveRate());
+        } catch (Exception e) {
+            logger.error("Error rebuilding transaction ID filter, keeping the previous one", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Gets the estimated false positive rate of the current filter.
+     *
+     * @return The estimated rate, or 0 if the filter has not been built yet
+     */
+    public double getEstimatedFalsePositiveRate() {
+        ScalableBloomFilter current = filter;
+        return current != null ? current.estimatedFalsePositiveRate() : 0;
+    }
+}
@@ -0,0 +1,293 @@
+package com.exquy.webhook.service.transaction;
+
+import com.company.transactionrecovery.api.dto.TransactionRequest;
+import com.company.transactionrecovery.domain.enums.TransactionStatus;
+import com.company.transactionrecovery.domain.model.Transaction;
+import com.company.transactionrecovery.domain.repository.TransactionBatchRepository;
+import com.company.transactionrecovery.domain.service.monitor.DashboardMetricsMaterializer;
+import com.company.transactionrecovery.infrastructure.kafka.producer.TransactionEventProducer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for the creation of new transactions, enabled with
+ * transaction.ingestion.group-commit.enabled=true.
+ * Concurrent requests are queued for at most max-wait-ms, or until
+ * max-batch-size requests are waiting, and are then created together: one
+ * statement inserts the transactions and their initial history entries, one
+ * JDBC batch writes their outbox events, and a single commit covers them all.
+ * Only requests whose ID TransactionIdFilter reports as new are queued, so
+ * batches are rarely spent on IDs that already exist.
+ * Each caller then receives its own transaction. A request whose transaction
+ * already exists, whose batch failed, or whose batch did not commit within
+ * max-wait-ms plus commit-timeout-ms receives null and is handled by the
+ * regular path, which also reports any error for that request. If a batch
+ * commits after its caller gave up, the regular path finds the transaction
+ * already created and returns it as a retry of the same request.
+ */
+@Component
+public class TransactionIngestionBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIngestionBatcher.class);
+
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final TransactionEventProducer eventProducer;
+    private final IdempotencyService idempotencyService;
+    private final DashboardMetricsMaterializer metricsMaterializer;
+    private final TransactionIdFilter transactionIdFilter;
+    private final TransactionTemplate batchTransaction;
+    private final Timer commitTimer;
+    private final DistributionSummary batchSizes;
+
+    @Value("${transaction.ingestion.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${transaction.ingestion.group-commit.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${transaction.ingestion.group-commit.max-wait-ms:5}")
+    private long maxWaitMs;
+
+    @Value("${transaction.ingestion.group-commit.commit-timeout-ms:2000}")
+    private long commitTimeoutMs;
+
+    @Value("${transaction.ingestion.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${transaction.ingestion.group-commit.flusher-threads:2}")
+    private int flusherThreads;
+
+    private BlockingQueue<PendingRequest> queue;
+    private final List<Thread> flushers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Autowired
+    public TransactionIngestionBatcher(
+            TransactionBatchRepository transactionBatchRepository,
+            TransactionEventProducer eventProducer,
+            IdempotencyService idempotencyService,
+            DashboardMetricsMaterializer metricsMaterializer,
+            TransactionIdFilter transactionIdFilter,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.eventProducer = eventProducer;
+        this.idempotencyService = idempotencyService;
+        this.metricsMaterializer = metricsMaterializer;
+        this.transactionIdFilter = transactionIdFilter;
+        // Batches never join the transaction of the thread that happens to run them
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.commitTimer = Timer.builder("transaction.ingestion.batch.commit")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("transaction.ingestion.batch.size")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+
+        for (int i = 1; i <= flusherThreads; i++) {
+            Thread flusher = new Thread(this::runFlusher, "transaction-ingestion-flusher-" + i);
+            flusher.setDaemon(true);
+            flusher.start();
+            flushers.add(flusher);
+        }
+
+        logger.info("Transaction group commit enabled: max batch size {}, max wait {} ms, {} flushers",
+                maxBatchSize, maxWaitMs, flusherThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        flushers.forEach(Thread::interrupt);
+
+        if (queue != null) {
+            List<PendingRequest> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            remaining.forEach(pending -> pending.future.complete(null));
+        }
+    }
+
+    /**
+     * Checks whether group commit is enabled.
+     *
+     * @return true if new transactions should be submitted to this batcher
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the creation of a new transaction for the next batch.
+     * When the queue is full the request is not queued, so a burst beyond the
+     * queue capacity falls back to the regular path instead of waiting.
+     *
+     * @param request The transaction request
+     * @return Future completed with the created transaction after commit, or with
+     *         null if the request must be handled by the regular path
+     */
+    public CompletableFuture<Transaction> submit(TransactionRequest request) {
+        PendingRequest pending = new PendingRequest(request);
+
+        if (!running || !queue.offer(pending)) {
+            pending.future.complete(null);
+        }
+
+        return pending.future;
+    }
+
+    /**
+     * Queues the creation of a new transaction and waits for its batch to commit,
+     * at most max-wait-ms plus commit-timeout-ms.
+     *
+     * @param request The transaction request
+     * @return The created transaction, or null if the request must be handled by
+     *         the regular path
+     */
+    public Transaction submitAndWait(TransactionRequest request) {
+        CompletableFuture<Transaction> future = submit(request);
+
+        try {
+            return future.get(maxWaitMs + commitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Batch of transaction {} did not commit within {} ms, falling back to single creation",
+                    request.getTransactionId(), maxWaitMs + commitTimeoutMs);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Collects batches from the queue and commits them until shutdown.
+     */
+    private void runFlusher() {
+        List<PendingRequest> batch = new ArrayList<>(maxBatchSize);
+
+        while (running) {
+            try {
+                PendingRequest first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingRequest next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                // Whatever happened, no caller is left waiting
+                batch.forEach(pending -> pending.future.complete(null));
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Creates the transactions of a batch in one database transaction and
+     * completes the callers' futures once it has committed.
+     */
+    private void flush(List<PendingRequest> batch) {
+        // A batch holds each ID at most once; later requests for the same ID take the regular path
+        Map<UUID, PendingRequest> byId = new LinkedHashMap<>();
+        for (PendingRequest pending : batch) {
+            byId.putIfAbsent(pending.request.getTransactionId(), pending);
+        }
+
+        List<Transaction> transactions = new ArrayList<>(byId.size());
+        for (PendingRequest pending : byId.values()) {
+            transactions.add(TransactionServiceImpl.newTransaction(
+                    pending.request, idempotencyService.fingerprint(pending.request)));
+        }
+
+        Timer.Sample sample = Timer.start();
+        List<Transaction> created;
+        try {
+            created = batchTransaction.execute(status -> {
+                List<Transaction> inserted = transactionBatchRepository.insertAllIfAbsent(transactions);
+                eventProducer.sendTransactionCreatedEvents(inserted);
+                metricsMaterializer.recordTransactionsCreated(TransactionStatus.PENDING, inserted.size());
+                return inserted;
+            });
+        } catch (Exception e) {
+            logger.error("Error creating batch of {} transactions, falling back to single creation",
+                    transactions.size(), e);
+            return;
+        } finally {
+            sample.stop(commitTimer);
+            batchSizes.record(batch.size());
+        }
+
+        Map<UUID, Transaction> createdById = new HashMap<>();
+        for (Transaction transaction : created) {
+            createdById.put(transaction.getId(), transaction);
+            transactionIdFilter.recordCreated(transaction.getId());
+        }
+
+        for (PendingRequest pending : byId.values()) {
+            pending.future.complete(createdById.get(pending.request.getTransactionId()));
+        }
+
+        logger.debug("Created {} of {} batched transactions", created.size(), batch.size());
+    }
+
+    /**
+     * A queued request and the future of its caller.
+     */
+    private static final class PendingRequest {
+        private final TransactionRequest request;
+        private final CompletableFuture<Transaction> future = new CompletableFuture<>();
+
+        PendingRequest(TransactionRequest request) {
+            this.request = request;
+        }
+    }
+}
@@ -6,8 +6,10 @@ import com.company.transactionrecovery.api.exception.TransactionNotFoundExceptio
 import com.company.transactionrecovery.domain.enums.TransactionStatus;
 import com.company.transactionrecovery.domain.model.Transaction;
 import com.company.transactionrecovery.domain.model.TransactionHistory;
+import com.company.transactionrecovery.domain.repository.TransactionBatchRepository;
 import com.company.transactionrecovery.domain.repository.TransactionHistoryRepository;
 import com.company.transactionrecovery.domain.repository.TransactionRepository;
+import com.company.transactionrecovery.domain.service.monitor.DashboardMetricsMaterializer;
 import com.company.transactionrecovery.infrastructure.kafka.producer.TransactionEventProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,10 +37,14 @@ public class TransactionServiceImpl implements TransactionService {
     private static final Logger logger = LoggerFactory.getLogger(TransactionServiceImpl.class);
 
     private final TransactionRepository transactionRepository;
+    private final TransactionBatchRepository transactionBatchRepository;
     private final TransactionHistoryRepository historyRepository;
     private final IdempotencyService idempotencyService;
     private final StateManagerService stateManagerService;
     private final TransactionEventProducer eventProducer;
+    private final DashboardMetricsMaterializer metricsMaterializer;
+    private final TransactionIngestionBatcher ingestionBatcher;
+    private final TransactionIdFilter transactionIdFilter;
 
     @Value("${transaction.retry.max-attempts:3}")
     private int maxRetryAttempts;
@@ -46,15 +52,23 @@ public class TransactionServiceImpl implements TransactionService {
     @Autowired
     public TransactionServiceImpl(
             TransactionRepository transactionRepository,
+            TransactionBatchRepository transactionBatchRepository,
             TransactionHistoryRepository historyRepository,
             IdempotencyService idempotencyService,
             StateManagerService stateManagerService,
-            TransactionEventProducer eventProducer) {
+            TransactionEventProducer eventProducer,
+            DashboardMetricsMaterializer metricsMaterializer,
+            TransactionIngestionBatcher ingestionBatcher,
+            TransactionIdFilter transactionIdFilter) {
         this.transactionRepository = transactionRepository;
+        this.transactionBatchRepository = transactionBatchRepository;
         this.historyRepository = historyRepository;
         this.idempotencyService = idempotencyService;
         this.stateManagerService = stateManagerService;
         this.eventProducer = eventProducer;
+        this.metricsMaterializer = metricsMaterializer;
+        this.ingestionBatcher = ingestionBatcher;
+        this.transactionIdFilter = transactionIdFilter;
     }
 
     @Override
@@ -63,83 +77,122 @@ public class TransactionServiceImpl implements TransactionService {
         logger.info("Processing transaction with ID: {}, retry: {}", 
                 request.getTransactionId(), request.isRetry());
 
-        // Check if transaction already exists
-        Transaction existingTransaction = transactionRepository
-                .findById(request.getTransactionId())
-                .orElse(null);
+        // IDs that may already exist are read first, so their insert is not attempted in vain
+        if (transactionIdFilter.mightExist(request.getTransactionId())) {
+            TransactionRepository.TransactionSummary existingTransaction = transactionRepository
+                    .findSummaryById(request.getTransactionId())
+                    .orElse(null);
+            if (existingTransaction != null) {
+                return handleExistingTransaction(existingTransaction, request);
+            }
+            transactionIdFilter.recordFalsePositive();
+        } else if (ingestionBatcher.isEnabled() && !request.isRetry()) {
+            // With group commit, new transactions are created together with concurrent requests
+            Transaction batchedTransaction = ingestionBatcher.submitAndWait(request);
+            if (batchedTransaction != null) {
+                return batchedTransaction;
+            }
+        }
 
-        if (existingTransaction != null) {
-            return handleExistingTransaction(existingTransaction, request);
-        } else {
-            return createNewTransaction(request);
+        // Insert first; the existing transaction is only read when the ID is taken
+        Transaction createdTransaction = createNewTransaction(request);
+        if (createdTransaction != null) {
+            return createdTransaction;
         }
+
+        TransactionRepository.TransactionSummary existingTransaction = transactionRepository
+                .findSummaryById(request.getTransactionId())
+                .orElseThrow(() -> new TransactionNotFoundException(request.getTransactionId()));
+        return handleExistingTransaction(existingTransaction, request);
     }
 
     /**
      * Handles the case where a transaction with the same ID already exists.
+     * The stored payload is only read when the fingerprints differ or the
+     * existing transaction has none, or when the transaction is modified.
      */
-    private Transaction handleExistingTransaction(Transaction existingTransaction, 
+    private Transaction handleExistingTransaction(TransactionRepository.TransactionSummary summary,
                                                  TransactionRequest request) {
+        Transaction existingTransaction = null;
+
         // Check for idempotency - ensure this is truly a retry and not a different transaction
-        if (!request.isRetry() && !idempotencyService.isIdempotent(existingTransaction, request)) {
-            logger.warn("Duplicate transaction detected with ID: {}", request.getTransactionId());
-            throw new DuplicateTransactionException(
-                    existingTransaction.getId(),
-                    existingTransaction.getStatus());
+        if (!request.isRetry() &&
+            !idempotencyService.fingerprint(request).equals(summary.getPayloadFingerprint())) {
+            existingTransaction = getTransaction(summary.getId());
+            if (!idempotencyService.isIdempotent(existingTransaction, request)) {
+                logger.warn("Duplicate transaction detected with ID: {}", request.getTransactionId());
+                throw new DuplicateTransactionException(
+                        existingTransaction.getId(),
+                        existingTransaction.getStatus());
+            }
         }
 
         // Handle based on current status
-        switch (existingTransaction.getStatus()) {
+        switch (summary.getStatus()) {
             case COMPLETED:
             case FAILED:
                 logger.info("Transaction {} already in terminal state: {}", 
-                        existingTransaction.getId(), existingTransaction.getStatus());
-                return existingTransaction;
+                        summary.getId(), summary.getStatus());
+                return existingTransaction != null ? existingTransaction : fromSummary(summary, request);
 
             case PENDING:
             case PROCESSING:
                 if (request.isRetry()) {
-                    logger.info("Retrying transaction: {}", existingTransaction.getId());
-                    return retryTransaction(existingTransaction);
+                    logger.info("Retrying transaction: {}", summary.getId());
+                    return retryTransaction(getTransaction(summary.getId()));
                 }
-                return existingTransaction;
+                return existingTransaction != null ? existingTransaction : fromSummary(summary, request);
 
             case TIMEOUT:
             case INCONSISTENT:
                 logger.info("Transaction {} in problematic state: {}. Attempting recovery.", 
-                        existingTransaction.getId(), existingTransaction.getStatus());
-                return recoverTransaction(existingTransaction, request);
+                        summary.getId(), summary.getStatus());
+                return recoverTransaction(
+                        existingTransaction != null ? existingTransaction : getTransaction(summary.getId()),
+                        request);
 
             default:
                 logger.warn("Unexpected status for transaction {}: {}", 
-                        existingTransaction.getId(), existingTransaction.getStatus());
-                return existingTransaction;
+                        summary.getId(), summary.getStatus());
+                return existingTransaction != null ? existingTransaction : fromSummary(summary, request);
         }
     }
 
     /**
-     * Creates a new transaction from the request.
+     * Builds an existing transaction from its summary, for a request with the
+     * same fingerprint. The fingerprint covers every relevant field, so the
+     * request payload stands in for the stored one.
      */
-    private Transaction createNewTransaction(TransactionRequest request) {
-        Transaction transaction = Transaction.builder()
-                .id(request.getTransactionId())
-                .originSystem(request.getOriginSystem())
-                .status(TransactionStatus.PENDING)
+    private static Transaction fromSummary(TransactionRepository.TransactionSummary summary,
+                                           TransactionRequest request) {
+        return Transaction.builder()
+                .id(summary.getId())
+                .originSystem(summary.getOriginSystem())
+                .status(summary.getStatus())
                 .payload(request.getPayload())
-                .attemptCount(1)
-                .webhookUrl(request.getWebhookUrl())
-                .webhookSecurityToken(request.getWebhookSecurityToken())
+                .payloadFingerprint(summary.getPayloadFingerprint())
+                .createdAt(summary.getCreatedAt())
+                .updatedAt(summary.getUpdatedAt())
                 .build();
+    }
 
-        transaction = transactionRepository.save(transaction);
+    /**
+     * Creates a new transaction from the request, together with its initial
+     * history entry, in a single statement.
+     *
+     * @return The new transaction, or null if a transaction with the same ID already exists
+     */
+    private Transaction createNewTransaction(TransactionRequest request) {
+        Transaction transaction = transactionBatchRepository
+                .insertIfAbsent(newTransaction(request, idempotencyService.fingerprint(request)))
+                .orElse(null);
 
-        // Create initial history entry
-        TransactionHistory history = TransactionHistory.createInitialEntry(
-                transaction.getId(), 
-                TransactionStatus.PENDING, 
-                request.getOriginSystem());
-        
-        historyRepository.save(history);
+        if (transaction == null) {
+            return null;
+        }
+
+        metricsMaterializer.recordTransactionCreated(TransactionStatus.PENDING);
+        transactionIdFilter.recordCreated(transaction.getId());
 
         // Publish event for async processing
         eventProducer.sendTransactionCreatedEvent(transaction);
@@ -147,6 +200,22 @@ public class TransactionServiceImpl implements TransactionService {
         return transaction;
     }
 
+    /**
+     * Builds a new PENDING transaction from a request, before it is persisted.
+     */
+    static Transaction newTransaction(TransactionRequest request, String payloadFingerprint) {
+        return Transaction.builder()
+                .id(request.getTransactionId())
+                .originSystem(request.getOriginSystem())
+                .status(TransactionStatus.PENDING)
+                .payload(request.getPayload())
+                .payloadFingerprint(payloadFingerprint)
+                .attemptCount(1)
+                .webhookUrl(request.getWebhookUrl())
+                .webhookSecurityToken(request.getWebhookSecurityToken())
+                .build();
+    }
+
     /**
      * Handles retrying a transaction.
      */
@@ -190,6 +259,7 @@ public class TransactionServiceImpl implements TransactionService {
 
         // If the transaction is in TIMEOUT or INCONSISTENT state, we'll reset it to PENDING
         // and let it be processed again
+        TransactionStatus previousStatus = transaction.getStatus();
         transaction.updateStatus(TransactionStatus.PENDING);
         transaction.recordAttempt();
         Transaction updatedTransaction = transactionRepository.save(transaction);
@@ -203,6 +273,7 @@ public class TransactionServiceImpl implements TransactionService {
                 "SYSTEM_RECOVERY");
         
         historyRepository.save(history);
+        metricsMaterializer.recordStatusChange(previousStatus, TransactionStatus.PENDING);
 
         // Trigger processing (will be done asynchronously)
         eventProducer.sendTransactionRecoveryEvent(updatedTransaction);
@@ -268,6 +339,7 @@ public class TransactionServiceImpl implements TransactionService {
                 changedBy);
         
         historyRepository.save(history);
+        metricsMaterializer.recordStatusChange(previousStatus, status);
         
         // Publish event for the status change
         eventProducer.sendTransactionStatusChangedEvent(updatedTransaction, previousStatus);
@@ -420,6 +492,7 @@ public class TransactionServiceImpl implements TransactionService {
         }
         
         transaction = transactionRepository.save(transaction);
+        metricsMaterializer.recordStatusChange(currentStatus, targetStatus);
         
         // Publish event for the manual resolution
         eventProducer.sendTransactionManuallyResolvedEvent(transaction, currentStatus);
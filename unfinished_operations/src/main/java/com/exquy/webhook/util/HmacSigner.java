@@ -0,0 +1,162 @@
+package com.exquy.webhook.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HMAC engine with a bounded cache of initialized Mac instances per (algorithm, secret).
+ * Provider lookup and key initialization only happen on a cache miss; each signature
+ * is computed on a clone of the cached prototype, so callers on different threads
+ * never share Mac state. Entries must be invalidated when a secret is rotated.
+ */
+@Component
+public class HmacSigner {
+
+    private static final Logger logger = LoggerFactory.getLogger(HmacSigner.class);
+
+    @Value("${webhook.signature.cache-size:10000}")
+    private int maxEntries;
+
+    private final Map<CacheKey, Mac> prototypes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, Mac> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Computes the HMAC of a payload.
+     *
+     * @param payload The bytes to sign
+     * @param secretKey The secret key
+     * @param algorithm The HMAC algorithm (e.g., HmacSHA256, HmacSHA512)
+     * @return The raw HMAC bytes
+     * @throws NoSuchAlgorithmException if the algorithm is not available
+     * @throws InvalidKeyException if the key is invalid
+     */
+    public byte[] sign(byte[] payload, String secretKey, String algorithm)
+            throws NoSuchAlgorithmException, InvalidKeyException {
+        return getMac(secretKey, algorithm).doFinal(payload);
+    }
+
+    /**
+     * Drops the cached engines of a secret, e.g. after a webhook's token is rotated
+     * or the webhook is deleted.
+     *
+     * @param secretKey The secret key that is no longer in use
+     */
+    public void invalidate(String secretKey) {
+        if (secretKey == null) {
+            return;
+        }
+
+        synchronized (prototypes) {
+            prototypes.keySet().removeIf(key -> key.secretKey.equals(secretKey));
+        }
+    }
+
+    /**
+     * Gets cache statistics.
+     *
+     * @return Map containing the cache size, hits and misses
+     */
+    public Map<String, Object> getStats() {
+        int size;
+        synchronized (prototypes) {
+            size = prototypes.size();
+        }
+
+        return Map.of(
+                "size", size,
+                "hits", hits.get(),
+                "misses", misses.get()
+        );
+    }
+
+    private Mac getMac(String secretKey, String algorithm)
+            throws NoSuchAlgorithmException, InvalidKeyException {
+
+        CacheKey key = new CacheKey(algorithm, secretKey);
+        Mac prototype;
+
+        synchronized (prototypes) {
+            prototype = prototypes.get(key);
+        }
+
+        if (prototype != null) {
+            try {
+                hits.incrementAndGet();
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                // Provider does not support cloning; fall back to a fresh instance
+                return newMac(secretKey, algorithm);
+            }
+        }
+
+        misses.incrementAndGet();
+        Mac mac = newMac(secretKey, algorithm);
+
+        try {
+            Mac copy = (Mac) mac.clone();
+            synchronized (prototypes) {
+                prototypes.put(key, copy);
+            }
+        } catch (CloneNotSupportedException e) {
+            logger.debug("HMAC provider for {} does not support cloning, engines will not be cached", algorithm);
+        }
+
+        return mac;
+    }
+
+    private static Mac newMac(String secretKey, String algorithm)
+            throws NoSuchAlgorithmException, InvalidKeyException {
+        Mac mac = Mac.getInstance(algorithm);
+        mac.init(new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), algorithm));
+        return mac;
+    }
+
+    /**
+     * Cache key for an initialized Mac.
+     */
+    private static final class CacheKey {
+        private final String algorithm;
+        private final String secretKey;
+
+        CacheKey(String algorithm, String secretKey) {
+            this.algorithm = algorithm;
+            this.secretKey = secretKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return algorithm.equals(other.algorithm) && secretKey.equals(other.secretKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(algorithm, secretKey);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.exquy.webhook.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe scalable Bloom filter of UUIDs.
+ * Starts with a filter sized for the expected number of insertions and adds
+ * a filter twice as large, with half the false positive rate, each time the
+ * current one is full. The false positive rate of the whole filter therefore
+ * stays below the configured rate however many IDs are added.
+ * Adding is lock-free except when a new filter has to be created.
+ */
+public class ScalableBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final double falsePositiveRate;
+    private volatile List<Slice> slices;
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Creates an empty filter.
+     *
+     * @param expectedInsertions Number of IDs the first filter is sized for
+     * @param falsePositiveRate Upper bound of the false positive rate, between 0 and 1
+     */
+    public ScalableBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter size: " +
+                    expectedInsertions + " insertions at rate " + falsePositiveRate);
+        }
+
+        this.falsePositiveRate = falsePositiveRate;
+        // The rates of the slices form a geometric series that sums to falsePositiveRate
+        this.slices = List.of(new Slice(expectedInsertions, falsePositiveRate / 2));
+    }
+
+    /**
+     * Adds an ID to the filter.
+     *
+     * @param id The ID to add
+     */
+    public void add(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits() ^ h1);
+
+        if (mightContain(h1, h2)) {
+            return;
+        }
+
+        Slice current = currentSlice();
+        current.add(h1, h2);
+        size.incrementAndGet();
+    }
+
+    /**
+     * Checks whether an ID might have been added.
+     *
+     * @param id The ID to check
+     * @return false if the ID was definitely never added, true if it may have been
+     */
+    public boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits() ^ h1);
+        return mightContain(h1, h2);
+    }
+
+    /**
+     * Gets the number of distinct IDs added, as far as the filter can tell.
+     *
+     * @return The approximate number of IDs
+     */
+    public long size() {
+        return size.get();
+    }
+
+    /**
+     * Estimates the current false positive rate from the fill of each slice.
+     *
+     * @return The estimated false positive rate
+     */
+    public double estimatedFalsePositiveRate() {
+        double allNegative = 1.0;
+        for (Slice slice : slices) {
+            allNegative *= 1.0 - slice.estimatedFalsePositiveRate();
+        }
+        return 1.0 - allNegative;
+    }
+
+    /**
+     * Gets the configured upper bound of the false positive rate.
+     *
+     * @return The false positive rate bound
+     */
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    private boolean mightContain(long h1, long h2) {
+        for (Slice slice : slices) {
+            if (slice.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Slice currentSlice() {
+        List<Slice> current = slices;
+        Slice last = current.get(current.size() - 1);
+
+        if (!last.isFull()) {
+            return last;
+        }
+
+        synchronized (this) {
+            current = slices;
+            last = current.get(current.size() - 1);
+            if (last.isFull()) {
+                List<Slice> grown = new ArrayList<>(current);
+                last = new Slice(last.capacity * 2, last.falsePositiveRate / 2);
+                grown.add(last);
+                slices = List.copyOf(grown);
+            }
+            return last;
+        }
+    }
+
+    /**
+     * Finalizer of MurmurHash3, spreads the bits of a 64-bit value.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * A fixed-size Bloom filter, with bit positions derived by double hashing.
+     */
+    private static final class Slice {
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+
+        Slice(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long words = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2) / 64);
+            if (words > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Bloom filter slice too large: " + capacity + " insertions");
+            }
+            this.bits = new AtomicLongArray((int) Math.max(1, words));
+            this.bitCount = this.bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+        }
+
+        void add(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value;
+                do {
+                    value = bits.get(word);
+                } while ((value & mask) == 0 && !bits.compareAndSet(word, value, value | mask));
+            }
+            count.incrementAndGet();
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isFull() {
+            return count.get() >= capacity;
+        }
+
+        double estimatedFalsePositiveRate() {
+            return Math.pow(1.0 - Math.exp(-(double) hashCount * count.get() / bitCount), hashCount);
+        }
+    }
+}
@@ -2,11 +2,10 @@ package com.exquy.webhook.util;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -23,9 +22,16 @@ public class SignatureUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(SignatureUtils.class);
 
+    private final HmacSigner hmacSigner;
+
     @Value("${webhook.signature.algorithm:HmacSHA256}")
     private String defaultSignatureAlgorithm;
 
+    @Autowired
+    public SignatureUtils(HmacSigner hmacSigner) {
+        this.hmacSigner = hmacSigner;
+    }
+
     /**
      * Generates an HMAC signature for a payload using the provided secret key.
      *
@@ -48,13 +54,35 @@ public class SignatureUtils {
      * @throws IllegalStateException if signature generation fails
      */
     public String generateHmacSignature(String payload, String secretKey, String algorithm) {
+        return generateHmacSignature(payload.getBytes(StandardCharsets.UTF_8), secretKey, algorithm);
+    }
+
+    /**
+     * Generates an HMAC signature over an already encoded payload using the provided secret key.
+     * Signing the exact bytes that are sent avoids re-encoding the payload per subscriber.
+     *
+     * @param payload The UTF-8 encoded payload to sign
+     * @param secretKey The secret key to use for signing
+     * @return The Base64-encoded signature
+     * @throws IllegalStateException if signature generation fails
+     */
+    public String generateHmacSignature(byte[] payload, String secretKey) {
+        return generateHmacSignature(payload, secretKey, defaultSignatureAlgorithm);
+    }
+
+    /**
+     * Generates an HMAC signature over an already encoded payload using the provided
+     * secret key and algorithm.
+     *
+     * @param payload The UTF-8 encoded payload to sign
+     * @param secretKey The secret key to use for signing
+     * @param algorithm The HMAC algorithm to use (e.g., HmacSHA256, HmacSHA512)
+     * @return The Base64-encoded signature
+     * @throws IllegalStateException if signature generation fails
+     */
+    public String generateHmacSignature(byte[] payload, String secretKey, String algorithm) {
         try {
-            Mac hmac = Mac.getInstance(algorithm);
-            SecretKeySpec keySpec = new SecretKeySpec(
-                    secretKey.getBytes(StandardCharsets.UTF_8), algorithm);
-            
-            hmac.init(keySpec);
-            byte[] signatureBytes = hmac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            byte[] signatureBytes = hmacSigner.sign(payload, secretKey, algorithm);
             
             return Base64.getEncoder().encodeToString(signatureBytes);
             
@@ -0,0 +1,96 @@
+package com.exquy.webhook.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the platform-thread and virtual-thread modes of the taskExecutor
+ * built by AsyncConfig, under a burst of blocking tasks. Each task sleeps for
+ * ioMillis to stand in for a JDBC, HTTP or SMTP call, and each of the 64
+ * submitting threads waits for its task like a request thread would.
+ * Throughput mode reports tasks per millisecond and SampleTime mode reports
+ * the latency percentiles, p0.99 included.
+ * The virtual mode needs Java 21. Run from the IDE, or with:
+ * mvn -Pvirtual-threads test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.exquy.webhook.config.AsyncExecutorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class AsyncExecutorBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    // Typical round trip of the blocking calls made by async tasks
+    @Param({"1", "10"})
+    private long ioMillis;
+
+    private Executor executor;
+
+    @Setup
+    public void setUp() {
+        // Defaults of application.yml
+        AsyncConfig config = new AsyncConfig();
+        ReflectionTestUtils.setField(config, "virtualThreads", "virtual".equals(threads));
+        ReflectionTestUtils.setField(config, "maxConcurrency", 200);
+        ReflectionTestUtils.setField(config, "corePoolSize", 5);
+        ReflectionTestUtils.setField(config, "maxPoolSize", 10);
+        ReflectionTestUtils.setField(config, "queueCapacity", 25);
+
+        executor = config.getAsyncExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) executor).shutdown();
+        } else if (executor instanceof SimpleAsyncTaskExecutor) {
+            ((SimpleAsyncTaskExecutor) executor).close();
+        }
+    }
+
+    @Benchmark
+    public void blockingTask() {
+        CompletableFuture.runAsync(this::blockingCall, executor).join();
+    }
+
+    private void blockingCall() {
+        try {
+            Thread.sleep(ioMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AsyncExecutorBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
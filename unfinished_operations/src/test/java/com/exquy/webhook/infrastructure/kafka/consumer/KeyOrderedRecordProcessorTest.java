@@ -0,0 +1,176 @@
+package com.exquy.webhook.infrastructure.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KeyOrderedRecordProcessorTest {
+
+    private static final String LISTENER_ID = "transaction-events-parallel";
+    private static final long WAIT_MS = 5000;
+
+    private ExecutorService pool;
+    private MessageListenerContainer container;
+    private ConsumerRecordRecoverer recoverer;
+    private KeyOrderedRecordProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(8);
+        container = mock(MessageListenerContainer.class);
+        recoverer = mock(ConsumerRecordRecoverer.class);
+
+        AtomicBoolean pauseRequested = new AtomicBoolean();
+        when(container.isPauseRequested()).thenAnswer(invocation -> pauseRequested.get());
+        doAnswer(invocation -> {
+            pauseRequested.set(true);
+            return null;
+        }).when(container).pause();
+        doAnswer(invocation -> {
+            pauseRequested.set(false);
+            return null;
+        }).when(container).resume();
+
+        KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+        when(registry.getListenerContainer(LISTENER_ID)).thenReturn(container);
+
+        processor = new KeyOrderedRecordProcessor(pool, registry, recoverer);
+        // Pause at 3 records in flight, resume at 1
+        ReflectionTestUtils.setField(processor, "maxInFlight", 4);
+        ReflectionTestUtils.setField(processor, "maxPollRecords", 1);
+        processor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void recordsWithSameKeyRunInSubmissionOrder() throws Exception {
+        ReflectionTestUtils.setField(processor, "maxInFlight", 1000);
+        processor.init();
+
+        Map<String, List<Integer>> processed = new ConcurrentHashMap<>();
+        CountDownLatch acknowledged = new CountDownLatch(300);
+
+        for (int offset = 0; offset < 300; offset++) {
+            String key = "tx-" + (offset % 3);
+            int current = offset;
+            processor.submit(LISTENER_ID, record(offset, key), key, () -> {
+                processed.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(current);
+                Thread.yield();
+            }, acknowledged::countDown);
+        }
+
+        assertThat(acknowledged.await(WAIT_MS, TimeUnit.MILLISECONDS)).isTrue();
+        for (int k = 0; k < 3; k++) {
+            List<Integer> offsets = processed.get("tx-" + k);
+            assertThat(offsets).hasSize(100).isSorted();
+        }
+        assertThat(processor.getInFlightCount()).isZero();
+    }
+
+    @Test
+    void acknowledgesOnlyOnceProcessed() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        processor.submit(LISTENER_ID, record(0, "tx-1"), "tx-1", () -> await(release), acknowledgment);
+
+        verify(acknowledgment, after(200).never()).acknowledge();
+        release.countDown();
+        verify(acknowledgment, timeout(WAIT_MS)).acknowledge();
+        verify(recoverer, never()).accept(any(), any());
+    }
+
+    @Test
+    void failedRecordIsDeadLetteredThenAcknowledged() {
+        ConsumerRecord<String, String> failing = record(7, "tx-1");
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        processor.submit(LISTENER_ID, failing, "tx-1", () -> {
+            throw new IllegalStateException("Transaction not found: tx-1");
+        }, acknowledgment);
+
+        verify(acknowledgment, timeout(WAIT_MS)).acknowledge();
+        verify(recoverer).accept(eq(failing), any(IllegalStateException.class));
+    }
+
+    @Test
+    void recordIsNotAcknowledgedWhenDeadLetterFails() throws Exception {
+        doThrow(new IllegalStateException("broker unavailable")).when(recoverer).accept(any(), any());
+        Acknowledgment failedAck = mock(Acknowledgment.class);
+        CountDownLatch nextAcknowledged = new CountDownLatch(1);
+
+        processor.submit(LISTENER_ID, record(0, "tx-1"), "tx-1", () -> {
+            throw new IllegalStateException("Transaction not found: tx-1");
+        }, failedAck);
+        // A later record of the same key still runs once the failed one is done
+        processor.submit(LISTENER_ID, record(1, "tx-1"), "tx-1", () -> { }, nextAcknowledged::countDown);
+
+        assertThat(nextAcknowledged.await(WAIT_MS, TimeUnit.MILLISECONDS)).isTrue();
+        verify(failedAck, never()).acknowledge();
+    }
+
+    @Test
+    void pausesListenerInsteadOfBlockingAndResumesOnceDrained() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch acknowledged = new CountDownLatch(4);
+
+        for (int offset = 0; offset < 4; offset++) {
+            String key = "tx-" + offset;
+            processor.submit(LISTENER_ID, record(offset, key), key, () -> await(release), acknowledged::countDown);
+        }
+
+        // All four submits returned although the pause threshold is three
+        verify(container).pause();
+        verify(container, never()).resume();
+
+        release.countDown();
+        assertThat(acknowledged.await(WAIT_MS, TimeUnit.MILLISECONDS)).isTrue();
+        verify(container, timeout(WAIT_MS)).resume();
+        assertThat(container.isPauseRequested()).isFalse();
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String key) {
+        return new ConsumerRecord<>("transaction-events", 0, offset, key, "event-" + offset);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.exquy.webhook.infrastructure.kafka.consumer;
+
+import ch.qos.logback.classic.Level;
+import com.company.transactionrecovery.domain.enums.WebhookEventType;
+import com.company.transactionrecovery.domain.model.WebhookConfig;
+import com.company.transactionrecovery.domain.model.WebhookDelivery;
+import com.company.transactionrecovery.domain.repository.WebhookDeliveryBatchRepository;
+import com.company.transactionrecovery.domain.repository.WebhookDeliveryBatchRepository.NewDelivery;
+import com.company.transactionrecovery.domain.repository.WebhookDeliveryRepository;
+import com.company.transactionrecovery.domain.service.webhook.WebhookDeliveryJournal;
+import com.company.transactionrecovery.domain.service.webhook.WebhookDispatcher;
+import com.company.transactionrecovery.domain.service.webhook.WebhookRoutingTable;
+import com.company.transactionrecovery.domain.service.webhook.WebhookService;
+import com.company.transactionrecovery.domain.service.webhook.WebhookStatsAggregator;
+import com.company.transactionrecovery.infrastructure.kafka.dto.WebhookEventMessage;
+import com.company.transactionrecovery.infrastructure.scheduler.WebhookRetryTimingWheel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Compares consuming one poll of webhook events record by record, through
+ * WebhookEventConsumer.consumeWebhookEvent, with consuming it as one batch
+ * through WebhookEventBatchConsumer.consumeWebhookEvents. Both consumers get
+ * the same records. Every repository call waits for roundTripMicros to stand
+ * in for a database round trip. The per-record consumer makes two calls per
+ * record (lookup and insert) and the batch consumer one call per poll.
+ * Dispatching is stubbed out, so only the consuming side is measured.
+ * Run from the IDE, or with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.exquy.webhook.infrastructure.kafka.consumer.WebhookEventConsumerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebhookEventConsumerBenchmark {
+
+    private static final int WEBHOOKS = 10;
+
+    // Records returned by one poll
+    @Param({"100", "500"})
+    private int records;
+
+    // 0 measures the consumers alone, 200 a database on the local network
+    @Param({"0", "200"})
+    private long roundTripMicros;
+
+    private List<WebhookEventMessage> messages;
+    private WebhookEventConsumer recordConsumer;
+    private WebhookEventBatchConsumer batchConsumer;
+    private Acknowledgment acknowledgment;
+
+    @Setup
+    public void setUp() {
+        // One INFO line per record would otherwise dominate the per-record consumer
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(Level.WARN);
+
+        Map<UUID, WebhookConfig> configs = new HashMap<>();
+        for (int i = 0; i < WEBHOOKS; i++) {
+            UUID id = UUID.randomUUID();
+            configs.put(id, WebhookConfig.builder()
+                    .id(id)
+                    .originSystem("benchmark")
+                    .callbackUrl("https://subscriber-" + i + ".example.com/webhooks")
+                    .securityToken("whsec_0123456789abcdef0123456789abcdef")
+                    .build());
+        }
+
+        List<UUID> webhookIds = new ArrayList<>(configs.keySet());
+        messages = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("transactionId", UUID.randomUUID().toString());
+            payload.put("status", "COMPLETED");
+            payload.put("amount", 100 + i);
+            payload.put("reference", "INV-" + i);
+
+            messages.add(WebhookEventMessage.builder()
+                    .eventId(UUID.randomUUID())
+                    .webhookId(webhookIds.get(i % WEBHOOKS))
+                    .transactionId(UUID.randomUUID())
+                    .eventType(WebhookEventType.TRANSACTION_COMPLETED)
+                    .payload(payload)
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+
+        WebhookRoutingTable routingTable = stub(WebhookRoutingTable.class);
+        when(routingTable.findById(any())).thenAnswer(call -> Optional.ofNullable(configs.get(call.getArgument(0))));
+
+        // Every event is new on every invocation, so both consumers do the same work each time
+        WebhookDeliveryRepository deliveryRepository = stub(WebhookDeliveryRepository.class);
+        when(deliveryRepository.findById(any())).thenAnswer(call -> {
+            roundTrip();
+            return Optional.empty();
+        });
+        when(deliveryRepository.save(any())).thenAnswer(call -> {
+            roundTrip();
+            return call.getArgument(0);
+        });
+
+        WebhookDeliveryBatchRepository batchRepository = stub(WebhookDeliveryBatchRepository.class);
+        when(batchRepository.insertPendingDeliveries(anyList())).thenAnswer(call -> {
+            roundTrip();
+            List<NewDelivery> rows = call.getArgument(0);
+            Set<UUID> inserted = new HashSet<>();
+            for (NewDelivery row : rows) {
+                inserted.add(row.getId());
+            }
+            return inserted;
+        });
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        WebhookDispatcher dispatcher = stub(WebhookDispatcher.class);
+        when(dispatcher.serializePayload(any())).thenAnswer(call -> objectMapper.writeValueAsBytes(call.getArgument(0)));
+        when(dispatcher.dispatch(any(), any())).thenAnswer(
+                call -> CompletableFuture.completedFuture(call.<WebhookDelivery>getArgument(0)));
+        when(dispatcher.dispatch(any(), any(), any())).thenAnswer(
+                call -> CompletableFuture.completedFuture(call.<WebhookDelivery>getArgument(0)));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        recordConsumer = new WebhookEventConsumer(
+                routingTable,
+                deliveryRepository,
+                stub(WebhookService.class),
+                dispatcher,
+                stub(WebhookDeliveryJournal.class),
+                stub(WebhookStatsAggregator.class),
+                stub(WebhookRetryTimingWheel.class),
+                meterRegistry);
+        batchConsumer = new WebhookEventBatchConsumer(
+                routingTable, batchRepository, dispatcher, recordConsumer, meterRegistry);
+        acknowledgment = stub(Acknowledgment.class);
+    }
+
+    @Benchmark
+    public void recordListener() {
+        for (WebhookEventMessage message : messages) {
+            recordConsumer.consumeWebhookEvent(message);
+        }
+    }
+
+    @Benchmark
+    public void batchListener() {
+        batchConsumer.consumeWebhookEvents(messages, acknowledgment);
+    }
+
+    private void roundTrip() {
+        if (roundTripMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+        }
+    }
+
+    /**
+     * Creates a mock that does not record its invocations, so memory use stays
+     * flat over millions of calls.
+     */
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WebhookEventConsumerBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
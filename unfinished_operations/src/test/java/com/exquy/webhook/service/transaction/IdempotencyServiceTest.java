@@ -0,0 +1,153 @@
+package com.exquy.webhook.service.transaction;
+
+import com.company.transactionrecovery.api.dto.TransactionRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyServiceTest {
+
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService();
+        service.setCriticalFields(Set.of("amount", "accountNumber", "description", "reference"));
+        service.setIgnoredFields(Set.of("timestamp", "clientIp", "deviceId"));
+        service.setSimilarityThreshold(80);
+    }
+
+    @Test
+    void fingerprintIsA256BitHexHash() {
+        assertThat(service.fingerprint(request("payments", Map.of("amount", 10))))
+                .hasSize(64)
+                .matches("[0-9a-f]+");
+    }
+
+    @Test
+    void fingerprintDoesNotDependOnKeyOrder() {
+        Map<String, Object> ordered = new LinkedHashMap<>();
+        ordered.put("amount", 10);
+        ordered.put("reference", "INV-1");
+        ordered.put("details", linkedMap("currency", "EUR", "channel", "web"));
+
+        Map<String, Object> reversed = new LinkedHashMap<>();
+        reversed.put("details", linkedMap("channel", "web", "currency", "EUR"));
+        reversed.put("reference", "INV-1");
+        reversed.put("amount", 10);
+
+        assertThat(service.fingerprint(request("payments", ordered)))
+                .isEqualTo(service.fingerprint(request("payments", reversed)));
+    }
+
+    @Test
+    void equalNumbersOfDifferentTypesHaveTheSameFingerprint() {
+        String integer = service.fingerprint(request("payments", Map.of("amount", 10)));
+
+        assertThat(service.fingerprint(request("payments", Map.of("amount", 10.0)))).isEqualTo(integer);
+        assertThat(service.fingerprint(request("payments", Map.of("amount", 10L)))).isEqualTo(integer);
+        assertThat(service.fingerprint(request("payments", Map.of("amount", new BigDecimal("10.00")))))
+                .isEqualTo(integer);
+
+        assertThat(service.fingerprint(request("payments", Map.of("amount", 10.5)))).isNotEqualTo(integer);
+        assertThat(service.fingerprint(request("payments", Map.of("amount", "10")))).isNotEqualTo(integer);
+    }
+
+    @Test
+    void stringsAreLengthPrefixed() {
+        // Without length prefixes both lists would read [sa,sb,]
+        String joined = service.fingerprint(request("payments", Map.of("items", List.of("a,sb"))));
+        String split = service.fingerprint(request("payments", Map.of("items", List.of("a", "b"))));
+
+        assertThat(joined).isNotEqualTo(split);
+    }
+
+    @Test
+    void nullIsDistinguishedFromStrings() {
+        Map<String, Object> withNull = new HashMap<>();
+        withNull.put("reference", null);
+
+        assertThat(service.fingerprint(request("payments", withNull)))
+                .isNotEqualTo(service.fingerprint(request("payments", Map.of("reference", "~"))))
+                .isNotEqualTo(service.fingerprint(request("payments", Map.of())));
+        assertThat(service.fingerprint(request("payments", null)))
+                .isNotEqualTo(service.fingerprint(request("payments", Map.of())));
+    }
+
+    @Test
+    void originSystemIsPartOfTheFingerprint() {
+        Map<String, Object> payload = Map.of("amount", 10);
+
+        assertThat(service.fingerprint(request("payments", payload)))
+                .isNotEqualTo(service.fingerprint(request("billing", payload)));
+    }
+
+    @Test
+    void topLevelIgnoredFieldsAreLeftOut() {
+        String base = service.fingerprint(request("payments", Map.of("amount", 10)));
+
+        assertThat(service.fingerprint(request("payments",
+                Map.of("amount", 10, "timestamp", "2024-01-01T00:00:00", "clientIp", "10.0.0.1"))))
+                .isEqualTo(base);
+
+        // Only top-level fields are ignored
+        assertThat(service.fingerprint(request("payments",
+                Map.of("amount", 10, "meta", Map.of("timestamp", "2024-01-01T00:00:00")))))
+                .isNotEqualTo(service.fingerprint(request("payments",
+                        Map.of("amount", 10, "meta", Map.of("timestamp", "2024-01-02T00:00:00")))));
+    }
+
+    @Test
+    void criticalFieldsAreKeptEvenWhenIgnored() {
+        service.setIgnoredFields(Set.of("timestamp", "amount"));
+
+        assertThat(service.fingerprint(request("payments", Map.of("amount", 10))))
+                .isNotEqualTo(service.fingerprint(request("payments", Map.of("amount", 11))));
+    }
+
+    @Test
+    void changingIgnoredFieldsChangesTheFingerprint() {
+        TransactionRequest request = request("payments", Map.of("amount", 10));
+        String before = service.fingerprint(request);
+
+        service.setIgnoredFields(Set.of("timestamp", "clientIp"));
+
+        assertThat(service.fingerprint(request)).isNotEqualTo(before);
+    }
+
+    @Test
+    void ignoredFieldOrderDoesNotMatter() {
+        TransactionRequest request = request("payments", Map.of("amount", 10));
+        String before = service.fingerprint(request);
+
+        service.setIgnoredFields(new LinkedHashSet<>(Arrays.asList("deviceId", "clientIp", "timestamp")));
+
+        assertThat(service.fingerprint(request)).isEqualTo(before);
+    }
+
+    private static TransactionRequest request(String originSystem, Map<String, Object> payload) {
+        return TransactionRequest.builder()
+                .transactionId(UUID.randomUUID())
+                .originSystem(originSystem)
+                .payload(payload)
+                .build();
+    }
+
+    private static Map<String, Object> linkedMap(String k1, Object v1, String k2, Object v2) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put(k1, v1);
+        map.put(k2, v2);
+        return map;
+    }
+}
@@ -0,0 +1,127 @@
+package com.exquy.webhook.service.webhook;
+
+import com.company.transactionrecovery.domain.enums.WebhookDeliveryStatus;
+import com.company.transactionrecovery.domain.enums.WebhookEventType;
+import com.company.transactionrecovery.domain.model.WebhookDelivery;
+import com.company.transactionrecovery.domain.repository.WebhookDeliveryBatchRepository;
+import com.company.transactionrecovery.domain.service.webhook.WebhookDeliveryJournal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the database statements issued per webhook delivery, writing each
+ * state transition through as it happens (the behavior before the journal)
+ * versus writing them behind in batches.
+ */
+class WebhookDeliveryJournalRoundTripTest {
+
+    private static final int DELIVERIES = 1000;
+    private static final int BATCH_SIZE = 500;
+    // Columns per row of the multi-row UPDATE
+    private static final int COLUMNS = 11;
+
+    private final List<Runnable> earlyFlushes = new ArrayList<>();
+    private CountingJdbcTemplate jdbcTemplate;
+    private WebhookDeliveryJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new CountingJdbcTemplate();
+        // Early flushes are never run, so every statement comes from an explicit flush()
+        journal = new WebhookDeliveryJournal(
+                new WebhookDeliveryBatchRepository(jdbcTemplate), new ObjectMapper(), earlyFlushes::add);
+        ReflectionTestUtils.setField(journal, "batchSize", BATCH_SIZE);
+    }
+
+    @Test
+    void writeThroughIssuesOneStatementPerTransition() {
+        for (WebhookDelivery delivery : newDeliveries()) {
+            markProcessing(delivery);
+            journal.flush();
+            markDelivered(delivery);
+            journal.flush();
+        }
+
+        assertThat(jdbcTemplate.statements).isEqualTo(2 * DELIVERIES);
+        assertThat(statementsPerDelivery()).isEqualTo(2.0);
+    }
+
+    @Test
+    void writeBehindCoalescesTransitionsIntoBatchedStatements() {
+        for (WebhookDelivery delivery : newDeliveries()) {
+            markProcessing(delivery);
+            markDelivered(delivery);
+        }
+        journal.flush();
+
+        // Only the latest state of each delivery is written, BATCH_SIZE rows per statement
+        assertThat(jdbcTemplate.statements).isEqualTo(DELIVERIES / BATCH_SIZE);
+        assertThat(jdbcTemplate.statuses)
+                .hasSize(DELIVERIES)
+                .containsOnly(WebhookDeliveryStatus.DELIVERED.name());
+        assertThat(statementsPerDelivery()).isEqualTo(0.002);
+
+        Map<String, Object> stats = journal.getStats();
+        assertThat(stats)
+                .containsEntry("transitionsRecorded", 2L * DELIVERIES)
+                .containsEntry("transitionsCoalesced", (long) DELIVERIES)
+                .containsEntry("statementsExecuted", (long) DELIVERIES / BATCH_SIZE)
+                .containsEntry("roundTripsPerTransition", 0.001);
+    }
+
+    private double statementsPerDelivery() {
+        return (double) jdbcTemplate.statements / DELIVERIES;
+    }
+
+    private void markProcessing(WebhookDelivery delivery) {
+        delivery.setDeliveryStatus(WebhookDeliveryStatus.PROCESSING);
+        delivery.recordAttempt(WebhookDeliveryStatus.PROCESSING, null, null);
+        journal.record(delivery);
+    }
+
+    private void markDelivered(WebhookDelivery delivery) {
+        delivery.recordAttempt(WebhookDeliveryStatus.DELIVERED, 200, "ok");
+        journal.record(delivery);
+    }
+
+    private static List<WebhookDelivery> newDeliveries() {
+        List<WebhookDelivery> deliveries = new ArrayList<>(DELIVERIES);
+        for (int i = 0; i < DELIVERIES; i++) {
+            deliveries.add(WebhookDelivery.builder()
+                    .id(UUID.randomUUID())
+                    .webhookId(UUID.randomUUID())
+                    .eventType(WebhookEventType.TRANSACTION_TIMEOUT)
+                    .deliveryStatus(WebhookDeliveryStatus.PENDING)
+                    .build());
+        }
+        return deliveries;
+    }
+
+    /**
+     * JdbcTemplate that counts statements instead of running them, and reports
+     * every row of a multi-row UPDATE as updated.
+     */
+    private static final class CountingJdbcTemplate extends JdbcTemplate {
+        private int statements;
+        private final List<String> statuses = new ArrayList<>();
+
+        @Override
+        public int update(String sql, Object... args) {
+            statements++;
+            for (int row = 0; row < args.length / COLUMNS; row++) {
+                statuses.add((String) args[row * COLUMNS + 1]);
+            }
+            return args.length / COLUMNS;
+        }
+    }
+}
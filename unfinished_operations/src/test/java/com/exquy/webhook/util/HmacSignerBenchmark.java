@@ -0,0 +1,79 @@
+package com.exquy.webhook.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares HmacSigner.sign with the per-call Mac.getInstance and init it replaced.
+ * Run from the IDE, or with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.exquy.webhook.util.HmacSignerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class HmacSignerBenchmark {
+
+    private static final String SECRET = "whsec_0123456789abcdef0123456789abcdef";
+
+    @Param({"HmacSHA256", "HmacSHA512"})
+    private String algorithm;
+
+    // Typical serialized transaction event
+    @Param({"512", "4096"})
+    private int payloadSize;
+
+    private byte[] payload;
+    private HmacSigner signer;
+
+    @Setup
+    public void setUp() {
+        payload = new byte[payloadSize];
+        Arrays.fill(payload, (byte) 'x');
+
+        signer = new HmacSigner();
+        ReflectionTestUtils.setField(signer, "maxEntries", 10000);
+    }
+
+    @Benchmark
+    public byte[] cachedSigner() throws Exception {
+        return signer.sign(payload, SECRET, algorithm);
+    }
+
+    @Benchmark
+    public byte[] freshMac() throws Exception {
+        Mac mac = Mac.getInstance(algorithm);
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), algorithm));
+        return mac.doFinal(payload);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HmacSignerBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,133 @@
+package com.exquy.webhook.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HmacSignerTest {
+
+    private static final byte[] PAYLOAD = "{\"transaction_id\":\"42\"}".getBytes(StandardCharsets.UTF_8);
+
+    private HmacSigner signer;
+
+    @BeforeEach
+    void setUp() {
+        signer = new HmacSigner();
+        ReflectionTestUtils.setField(signer, "maxEntries", 2);
+    }
+
+    @Test
+    void signMatchesFreshMacOnMissAndHit() throws Exception {
+        byte[] expected = freshMac(PAYLOAD, "secret", "HmacSHA256");
+
+        assertThat(signer.sign(PAYLOAD, "secret", "HmacSHA256")).isEqualTo(expected);
+        assertThat(signer.sign(PAYLOAD, "secret", "HmacSHA256")).isEqualTo(expected);
+
+        assertThat(signer.getStats())
+                .containsEntry("misses", 1L)
+                .containsEntry("hits", 1L)
+                .containsEntry("size", 1);
+    }
+
+    @Test
+    void engineStateDoesNotLeakBetweenCalls() throws Exception {
+        byte[] other = "other".getBytes(StandardCharsets.UTF_8);
+
+        signer.sign(other, "secret", "HmacSHA256");
+
+        assertThat(signer.sign(PAYLOAD, "secret", "HmacSHA256"))
+                .isEqualTo(freshMac(PAYLOAD, "secret", "HmacSHA256"));
+    }
+
+    @Test
+    void cachesPerAlgorithmAndSecret() throws Exception {
+        byte[] sha256 = signer.sign(PAYLOAD, "secret", "HmacSHA256");
+        byte[] sha512 = signer.sign(PAYLOAD, "secret", "HmacSHA512");
+        byte[] otherSecret = signer.sign(PAYLOAD, "rotated", "HmacSHA256");
+
+        assertThat(sha512).isEqualTo(freshMac(PAYLOAD, "secret", "HmacSHA512"));
+        assertThat(otherSecret).isEqualTo(freshMac(PAYLOAD, "rotated", "HmacSHA256"));
+        assertThat(sha256).isNotEqualTo(otherSecret);
+        assertThat(signer.getStats()).containsEntry("misses", 3L);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() throws Exception {
+        signer.sign(PAYLOAD, "a", "HmacSHA256");
+        signer.sign(PAYLOAD, "b", "HmacSHA256");
+        signer.sign(PAYLOAD, "a", "HmacSHA256");
+        signer.sign(PAYLOAD, "c", "HmacSHA256");
+
+        // "b" was the least recently used entry
+        signer.sign(PAYLOAD, "a", "HmacSHA256");
+        signer.sign(PAYLOAD, "b", "HmacSHA256");
+
+        assertThat(signer.getStats())
+                .containsEntry("size", 2)
+                .containsEntry("hits", 2L)
+                .containsEntry("misses", 4L);
+    }
+
+    @Test
+    void invalidateDropsEnginesOfSecret() throws Exception {
+        signer.sign(PAYLOAD, "secret", "HmacSHA256");
+        signer.sign(PAYLOAD, "secret", "HmacSHA512");
+
+        signer.invalidate("secret");
+        signer.invalidate(null);
+
+        assertThat(signer.getStats()).containsEntry("size", 0);
+
+        signer.sign(PAYLOAD, "secret", "HmacSHA256");
+        assertThat(signer.getStats()).containsEntry("misses", 3L);
+    }
+
+    @Test
+    void unknownAlgorithmIsRejected() {
+        assertThatThrownBy(() -> signer.sign(PAYLOAD, "secret", "HmacUnknown"))
+                .isInstanceOf(NoSuchAlgorithmException.class);
+    }
+
+    @Test
+    void concurrentCallersGetCorrectSignatures() throws Exception {
+        ReflectionTestUtils.setField(signer, "maxEntries", 100);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String secret = "secret-" + (i % 4);
+                byte[] payload = ("payload-" + i).getBytes(StandardCharsets.UTF_8);
+                byte[] expected = freshMac(payload, secret, "HmacSHA256");
+                tasks.add(() -> Arrays.equals(expected, signer.sign(payload, secret, "HmacSHA256")));
+            }
+
+            for (Future<Boolean> result : pool.invokeAll(tasks)) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static byte[] freshMac(byte[] payload, String secret, String algorithm) throws Exception {
+        Mac mac = Mac.getInstance(algorithm);
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm));
+        return mac.doFinal(payload);
+    }
+}
@@ -0,0 +1,137 @@
+package com.exquy.webhook.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScalableBloomFilterTest {
+
+    // Fixed seed, so the sampled false positive rate is reproducible
+    private final Random random = new Random(42);
+
+    @Test
+    void addedIdsAreAlwaysFound() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        List<UUID> added = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            UUID id = randomId();
+            filter.add(id);
+            added.add(id);
+        }
+
+        assertThat(added).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void growsBySlicesTwiceAsLargeWithHalfTheRate() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+
+        addUntilSize(filter, 100);
+        assertThat(slices(filter)).hasSize(1);
+        assertThat(sliceField(filter, 0, "falsePositiveRate")).isEqualTo(0.005);
+
+        addUntilSize(filter, 101);
+        assertThat(slices(filter)).hasSize(2);
+        assertThat(sliceField(filter, 1, "capacity")).isEqualTo(200L);
+        assertThat(sliceField(filter, 1, "falsePositiveRate")).isEqualTo(0.0025);
+
+        addUntilSize(filter, 301);
+        assertThat(slices(filter)).hasSize(3);
+        assertThat(sliceField(filter, 2, "capacity")).isEqualTo(400L);
+    }
+
+    @Test
+    void eachIdSetsHashCountDistinctBits() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+        UUID id = randomId();
+        filter.add(id);
+
+        AtomicLongArray bits = (AtomicLongArray) sliceField(filter, 0, "bits");
+        int hashCount = (Integer) sliceField(filter, 0, "hashCount");
+
+        List<Integer> setBits = new ArrayList<>();
+        for (int word = 0; word < bits.length(); word++) {
+            for (int bit = 0; bit < 64; bit++) {
+                if ((bits.get(word) & (1L << bit)) != 0) {
+                    setBits.add(word * 64 + bit);
+                }
+            }
+        }
+        assertThat(setBits).hasSize(hashCount);
+
+        // Every one of the positions derived from h1 + i * h2 is checked
+        for (int position : setBits) {
+            long mask = 1L << position;
+            bits.getAndUpdate(position >>> 6, value -> value & ~mask);
+            assertThat(filter.mightContain(id)).isFalse();
+            bits.getAndUpdate(position >>> 6, value -> value | mask);
+        }
+        assertThat(filter.mightContain(id)).isTrue();
+    }
+
+    @Test
+    void falsePositiveRateStaysWithinBoundAfterGrowing() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, 0.01);
+        for (int i = 0; i < 20000; i++) {
+            filter.add(randomId());
+        }
+        assertThat(slices(filter)).hasSizeGreaterThan(4);
+
+        int samples = 100000;
+        int falsePositives = 0;
+        for (int i = 0; i < samples; i++) {
+            if (filter.mightContain(randomId())) {
+                falsePositives++;
+            }
+        }
+
+        // The slice rates sum to just under the bound; allow for sampling error
+        assertThat((double) falsePositives / samples).isLessThan(0.011);
+        assertThat(filter.estimatedFalsePositiveRate()).isLessThanOrEqualTo(filter.getFalsePositiveRate());
+    }
+
+    @Test
+    void duplicateIdsAreCountedOnce() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        UUID id = randomId();
+
+        filter.add(id);
+        filter.add(id);
+
+        assertThat(filter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidSizesAreRejected() {
+        assertThatThrownBy(() -> new ScalableBloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ScalableBloomFilter(100, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ScalableBloomFilter(100, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void addUntilSize(ScalableBloomFilter filter, long size) {
+        while (filter.size() < size) {
+            filter.add(randomId());
+        }
+    }
+
+    private UUID randomId() {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    private static List<?> slices(ScalableBloomFilter filter) {
+        return (List<?>) ReflectionTestUtils.getField(filter, "slices");
+    }
+
+    private static Object sliceField(ScalableBloomFilter filter, int slice, String field) {
+        return ReflectionTestUtils.getField(slices(filter).get(slice), field);
+    }
+}